@@ -0,0 +1,74 @@
+package mapper;
+
+import model.entity.PlannedTx;
+import model.entity.Transaction;
+import model.home.FullTxRequestDTO;
+import model.home.TxResponseDTO;
+import model.transaction.PlannedTxResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.PlannedTxRepository;
+import repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    TransactionMapper txMap = new TransactionMapperImpl();
+    PlannedTxMapper plannedMap = new PlannedTxMapperImpl();
+
+    OffsetDateTime time = OffsetDateTime.of(2025, 3, 1, 10, 0, 0, 0, ZoneOffset.UTC);
+    Transaction entity = new Transaction(42L, "u", "E", new BigDecimal("12.50"), 3L, time,
+            new BigDecimal("45.800000"), new BigDecimal("15.970000"), "Coffee", "Zagreb");
+    TransactionRepository.TxView view = new TransactionRepository.TxView(42L, "E", new BigDecimal("12.50"), 3L,
+            time, "Zagreb", "Coffee");
+    FullTxRequestDTO request = new FullTxRequestDTO("E", new BigDecimal("12.50"), 3L,
+            LocalDateTime.of(2025, 3, 1, 10, 0), "Coffee", new BigDecimal("45.8"), new BigDecimal("15.97"));
+    PlannedTx planned = new PlannedTx(7L, 3L, "u", "Rent", "E", new BigDecimal("650.00"),
+            LocalDate.of(2025, 4, 1));
+    PlannedTxRepository.PlannedTxView plannedView = new PlannedTxRepository.PlannedTxView(7L, "E", 3L, "Rent",
+            new BigDecimal("650.00"), LocalDate.of(2025, 4, 1));
+
+    @Benchmark
+    public TxResponseDTO txEntityToResponse() {
+        return txMap.entityToResponse(entity);
+    }
+
+    @Benchmark
+    public TxResponseDTO txViewToResponse() {
+        return txMap.viewToResponse(view);
+    }
+
+    @Benchmark
+    public Transaction txRequestToEntity() {
+        return txMap.fullRequestToEntity(request);
+    }
+
+    @Benchmark
+    public PlannedTxResponseDTO plannedEntityToResponse() {
+        return plannedMap.entityToResponse(planned);
+    }
+
+    @Benchmark
+    public PlannedTxResponseDTO plannedViewToResponse() {
+        return plannedMap.viewToResponse(plannedView);
+    }
+}
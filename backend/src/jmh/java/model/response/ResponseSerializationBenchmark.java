@@ -0,0 +1,64 @@
+package model.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import model.helper.PagedResponseDTO;
+import model.home.TxResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON for one page of the transaction list, with the mapper configured the way Quarkus configures it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    ObjectMapper json;
+    ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>> response;
+
+    @Setup
+    public void setUp() {
+        json = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        List<TxResponseDTO> items = new ArrayList<>(pageSize);
+        LocalDateTime t = LocalDateTime.of(2025, 3, 1, 10, 0);
+        for (int i = 0; i < pageSize; i++) {
+            items.add(new TxResponseDTO((long) i, i % 3 == 0 ? "I" : "E", new BigDecimal("12.50"), 3L,
+                    t.minusHours(i), i % 4 == 0 ? "Zagreb" : null, "Note " + i));
+        }
+        response = ServiceResponseDirector.successOk(
+                new PagedResponseDTO<>(items, 0, pageSize, 1000, "MjAyNS0wMy0wMVQxMDowMFp8NDI"), "OK");
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return json.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,36 @@
+package service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinanceSignBenchmark {
+
+    String secret = "NhqPtmdSJYdKjVHjA7PZj4Mge3R5YNiP1e3UZjInClVN65XAbvqqM6A7H5fATj0j";
+    String accountQuery = "timestamp=1735689600000&recvWindow=5000";
+    String tradesQuery = "symbol=BTCUSDT&limit=1000&timestamp=1735689600000&recvWindow=5000";
+
+    @Benchmark
+    public String signAccount() {
+        return BinanceService.sign(accountQuery, secret);
+    }
+
+    @Benchmark
+    public String signTrades() {
+        return BinanceService.sign(tradesQuery, secret);
+    }
+}
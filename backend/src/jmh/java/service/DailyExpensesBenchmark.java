@@ -0,0 +1,68 @@
+package service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import repository.TransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Java side of the daily and monthly graphs: the database returns one row per active day or month and the
+ * service fills the gaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DailyExpensesBenchmark {
+
+    @Param({"30", "365"})
+    int days;
+
+    LocalDate start;
+    LocalDate end;
+    List<TransactionRepository.DailySum> daily;
+    List<TransactionRepository.MonthlySum> monthly;
+
+    @Setup
+    public void setUp() {
+        end = LocalDate.of(2025, 12, 31);
+        start = end.minusDays(days - 1L);
+        daily = new ArrayList<>();
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            if (d.getDayOfMonth() % 3 != 0) {
+                daily.add(new TransactionRepository.DailySum(d, new BigDecimal("-12.50")));
+            }
+        }
+        monthly = new ArrayList<>();
+        for (int m = 1; m <= 12; m += 2) {
+            monthly.add(new TransactionRepository.MonthlySum(m, new BigDecimal("420.00")));
+        }
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> fillDays() {
+        return TransactionService.fillDays(start, end, daily);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> fillMonths() {
+        return TransactionService.fillMonths(2025, monthly);
+    }
+}
@@ -0,0 +1,101 @@
+package service;
+
+import model.external.RevolutTransactionDTO;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RevolutStatementBenchmark {
+
+    private static final int LINES_PER_PAGE = 50;
+
+    @Param({"1", "10"})
+    int pages;
+
+    RevolutStatementService service;
+    byte[] statement;
+
+    @Setup
+    public void setUp() throws IOException {
+        service = new RevolutStatementService();
+        statement = statement(pages);
+    }
+
+    @Benchmark
+    public List<RevolutTransactionDTO> parseMonthlyStatement() throws IOException {
+        return service.parseMonthlyStatement(new ByteArrayInputStream(statement));
+    }
+
+    @Benchmark
+    public RevolutTransactionDTO parseLine() {
+        return RevolutStatementService.parseLine("01.08.2025  Konzum Zagreb            €-1.234,56   €0,00");
+    }
+
+    @Benchmark
+    public BigDecimal toDecimal() {
+        return RevolutStatementService.toDecimal("€-1.234,56");
+    }
+
+    @Benchmark
+    public LocalDate parseNumericDate() {
+        return RevolutStatementService.parseDate("01.08.2025");
+    }
+
+    @Benchmark
+    public LocalDate parseCroatianDate() {
+        return RevolutStatementService.parseDate("1. kol 2025.");
+    }
+
+    private static byte[] statement(int pages) throws IOException {
+        try (PDDocument doc = new PDDocument()) {
+            for (int p = 0; p < pages; p++) {
+                PDPage page = new PDPage(PDRectangle.A4);
+                doc.addPage(page);
+                try (PDPageContentStream cs = new PDPageContentStream(doc, page)) {
+                    cs.setFont(PDType1Font.HELVETICA, 10);
+                    float y = 800;
+                    for (int i = 0; i < LINES_PER_PAGE; i++) {
+                        String line = i % 2 == 0
+                                ? String.format("%02d.08.2025  Shop %d            €-%d,45   €0,00", i % 28 + 1, i, i + 1)
+                                : String.format("%d. kol 2025.  Transfer %d            €0,00   €%d,10", i % 28 + 1, i, i + 5);
+                        cs.beginText();
+                        cs.newLineAtOffset(50, y);
+                        cs.showText(line);
+                        cs.endText();
+                        y -= 14;
+                    }
+                }
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            doc.save(out);
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package load;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+
+import java.util.Map;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Local stand-ins for the geocoder, Binance and OneSignal. Each answers after a uniformly random delay between
+ * {@code load.stub.min-latency-ms} and {@code load.stub.max-latency-ms}, so background work competes for threads
+ * and connections the way it does against the real services.
+ */
+public class ExternalStubs implements QuarkusTestResourceLifecycleManager {
+
+    private WireMockServer server;
+
+    @Override
+    public Map<String, String> start() {
+        server = new WireMockServer(wireMockConfig()
+                .dynamicPort()
+                .containerThreads(Integer.getInteger("load.stub.threads", 50)));
+        server.start();
+
+        server.stubFor(get(urlPathMatching(".*/reverse"))
+                .willReturn(delayed().withBody("{\"display_name\":\"Ilica 1, Zagreb, Croatia\"}")));
+        server.stubFor(get(urlPathEqualTo("/api/v3/ticker/24hr"))
+                .willReturn(delayed().withBody("""
+                        [{"symbol":"BTCUSDT","lastPrice":"64000.00","volume":"1","priceChangePercent":"0.5",
+                          "quoteVolume":"64000","highPrice":"65000","lowPrice":"63000","openPrice":"63500"},
+                         {"symbol":"ETHUSDT","lastPrice":"3200.00","volume":"1","priceChangePercent":"-0.2",
+                          "quoteVolume":"3200","highPrice":"3300","lowPrice":"3100","openPrice":"3210"},
+                         {"symbol":"EURUSDT","lastPrice":"1.08","volume":"1","priceChangePercent":"0.0",
+                          "quoteVolume":"1","highPrice":"1.09","lowPrice":"1.07","openPrice":"1.08"}]
+                        """)));
+        server.stubFor(get(urlPathEqualTo("/api/v3/account"))
+                .willReturn(delayed().withBody("{\"balances\":[{\"asset\":\"BTC\",\"free\":\"0.01\",\"locked\":\"0\"}]}")));
+        server.stubFor(get(urlPathEqualTo("/api/v3/myTrades"))
+                .willReturn(delayed().withBody("[]")));
+        server.stubFor(post(urlPathEqualTo("/notifications"))
+                .willReturn(delayed().withBody("{\"id\":\"load\"}")));
+
+        return Map.of(
+                "geocode-api/mp-rest/url", server.baseUrl() + "/reverse",
+                "binance-api/mp-rest/url", server.baseUrl(),
+                "onesignal.api.url", server.baseUrl() + "/notifications"
+        );
+    }
+
+    private static ResponseDefinitionBuilder delayed() {
+        int min = Integer.getInteger("load.stub.min-latency-ms", 50);
+        int max = Math.max(min, Integer.getInteger("load.stub.max-latency-ms", 250));
+        return aResponse()
+                .withStatus(200)
+                .withHeader("Content-Type", "application/json")
+                .withUniformRandomDelay(min, max);
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) server.stop();
+    }
+}
@@ -0,0 +1,205 @@
+package load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+/**
+ * Closed-loop driver: {@code threads} workers each pick an operation by weight and a random synthetic user, send
+ * the request and go again until the run ends. Latencies recorded after the warm-up feed the report.
+ */
+final class LoadDriver {
+
+    static final String DEFAULT_MIX = "tx-page:20,tx-recent:10,tx-daily:8,tx-monthly:5,tx-category:6,"
+            + "tx-spending:4,tx-quick-add:6,dashboard-bundle:15,dashboard-summary:5,budget-list:8,"
+            + "planned-list:8,planned-create:5";
+
+    private final URI base;
+    private final int users;
+    private final long categoryId;
+    private final List<Operation> mix;
+    private final int totalWeight;
+    private final HttpClient http;
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+
+    LoadDriver(URI base, int users, long categoryId, String mixSpec) {
+        this.base = base;
+        this.users = users;
+        this.categoryId = categoryId;
+        this.mix = parseMix(mixSpec);
+        this.totalWeight = mix.stream().mapToInt(Operation::weight).sum();
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+    }
+
+    LoadReport run(int threads, Duration warmup, Duration duration) throws Exception {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, Samples>>> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long seed = 31L * t + 7;
+            workers.add(pool.submit(() -> work(new SplittableRandom(seed), measureFrom, end)));
+        }
+
+        Map<String, Samples> merged = new LinkedHashMap<>();
+        for (Future<Map<String, Samples>> w : workers) {
+            w.get().forEach((op, s) -> merged.computeIfAbsent(op, k -> new Samples()).addAll(s));
+        }
+        pool.shutdown();
+        return LoadReport.of(merged, duration, threads, users);
+    }
+
+    private Map<String, Samples> work(SplittableRandom rnd, long measureFrom, long end) {
+        Map<String, Samples> samples = new LinkedHashMap<>();
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) return samples;
+
+            Operation op = pick(rnd);
+            String user = SyntheticData.user(rnd.nextInt(users));
+            HttpRequest req = op.request().apply(user, rnd)
+                    .header("Authorization", "Bearer " + token(user))
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+
+            long sent = System.nanoTime();
+            boolean ok;
+            try {
+                int status = http.send(req, HttpResponse.BodyHandlers.discarding()).statusCode();
+                ok = status < 400;
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return samples;
+            }
+            long took = System.nanoTime() - sent;
+            if (sent >= measureFrom) {
+                samples.computeIfAbsent(op.name(), k -> new Samples()).record(took, ok);
+            }
+        }
+    }
+
+    private Operation pick(SplittableRandom rnd) {
+        int r = rnd.nextInt(totalWeight);
+        for (Operation op : mix) {
+            r -= op.weight();
+            if (r < 0) return op;
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    private String token(String user) {
+        return tokens.computeIfAbsent(user, u -> LoadTokens.mint(u, Duration.ofHours(6)));
+    }
+
+    private HttpRequest.Builder get(String pathAndQuery) {
+        return HttpRequest.newBuilder(base.resolve(pathAndQuery)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private List<Operation> parseMix(String spec) {
+        Map<String, BiFunction<String, SplittableRandom, HttpRequest.Builder>> known = operations();
+        List<Operation> ops = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split(":");
+            var request = known.get(kv[0]);
+            if (request == null) {
+                throw new IllegalArgumentException("Unknown load operation '" + kv[0] + "', expected one of "
+                        + known.keySet());
+            }
+            int weight = kv.length > 1 ? Integer.parseInt(kv[1]) : 1;
+            if (weight > 0) ops.add(new Operation(kv[0], weight, request));
+        }
+        if (ops.isEmpty()) throw new IllegalArgumentException("Empty load mix");
+        return ops;
+    }
+
+    private Map<String, BiFunction<String, SplittableRandom, HttpRequest.Builder>> operations() {
+        int year = LocalDate.now(ZoneOffset.UTC).getYear();
+        Map<String, BiFunction<String, SplittableRandom, HttpRequest.Builder>> ops = new LinkedHashMap<>();
+        ops.put("tx-page", (u, r) -> get("api/transactions?page=" + r.nextInt(5) + "&size=20"));
+        ops.put("tx-recent", (u, r) -> get("api/transactions/recent?limit=5"));
+        ops.put("tx-daily", (u, r) -> get("api/transactions/graph/daily?days=" + (r.nextBoolean() ? 7 : 30)));
+        ops.put("tx-monthly", (u, r) -> get("api/transactions/graph/monthly?year=" + (year - r.nextInt(2))));
+        ops.put("tx-category", (u, r) -> get("api/transactions/category-breakdown?month="
+                + LocalDate.now(ZoneOffset.UTC).minusMonths(r.nextInt(6)).toString().substring(0, 7)));
+        ops.put("tx-spending", (u, r) -> get("api/transactions/spending-vs-income?year=" + year));
+        ops.put("tx-quick-add", (u, r) -> post("api/transactions/quick", String.format(
+                "{\"type\":\"E\",\"amount\":%d.%02d,\"txTime\":\"%s\"}",
+                1 + r.nextInt(80), r.nextInt(100), OffsetDateTime.now(ZoneOffset.UTC))));
+        ops.put("dashboard-bundle", (u, r) -> get("api/dashboard/bundle"));
+        ops.put("dashboard-summary", (u, r) -> get("api/dashboard/summary"));
+        ops.put("budget-list", (u, r) -> get("api/budgets?page=0&size=10"));
+        ops.put("planned-list", (u, r) -> get("api/planned-transactions?page=0&size=10"));
+        ops.put("planned-create", (u, r) -> post("api/planned-transactions", String.format(
+                "{\"type\":\"E\",\"categoryId\":%d,\"title\":\"Load %d\",\"amount\":%d.00,\"dueDate\":\"%s\"}",
+                categoryId, r.nextInt(1000), 5 + r.nextInt(300),
+                LocalDate.now(ZoneOffset.UTC).plusDays(1 + r.nextInt(90)))));
+        return ops;
+    }
+
+    private record Operation(String name, int weight,
+                             BiFunction<String, SplittableRandom, HttpRequest.Builder> request) {
+    }
+
+    static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void record(long took, boolean ok) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = took;
+            if (!ok) errors++;
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) nanos = Arrays.copyOf(nanos, size + other.size);
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+
+        long count() {
+            return size;
+        }
+
+        long errors() {
+            return errors;
+        }
+
+        long[] sorted() {
+            long[] s = Arrays.copyOf(nanos, size);
+            Arrays.sort(s);
+            return s;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package load;
+
+import io.quarkus.test.junit.QuarkusTestProfile;
+
+import java.util.Map;
+
+/**
+ * The test datasource with OIDC switched back on and pointed at {@link LoadTokens}, so each synthetic user
+ * authenticates as itself. Pool sizes follow {@code load.*} so the driver is not throttled by defaults.
+ */
+public class LoadProfile implements QuarkusTestProfile {
+
+    @Override
+    public Map<String, String> getConfigOverrides() {
+        return Map.of(
+                "quarkus.oidc.enabled", "true",
+                "quarkus.oidc.auth-server-url", "",
+                "quarkus.oidc.public-key", LoadTokens.publicKey(),
+                "quarkus.datasource.jdbc.max-size", System.getProperty("load.db-pool", "40"),
+                "quarkus.log.category.\"org.hibernate\".level", "WARN"
+        );
+    }
+
+    @Override
+    public String getConfigProfile() {
+        return "test";
+    }
+}
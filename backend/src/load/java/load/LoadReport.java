@@ -0,0 +1,57 @@
+package load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-operation throughput and latency percentiles of one load run, printable as a table and serialisable as
+ * JSON for comparison between runs.
+ */
+record LoadReport(int threads, int users, double seconds, List<Row> operations, Row total) {
+
+    static LoadReport of(Map<String, LoadDriver.Samples> samples, Duration duration, int threads, int users) {
+        double seconds = duration.toMillis() / 1000.0;
+        List<Row> rows = new ArrayList<>();
+        LoadDriver.Samples all = new LoadDriver.Samples();
+        samples.forEach((op, s) -> {
+            rows.add(Row.of(op, s, seconds));
+            all.addAll(s);
+        });
+        return new LoadReport(threads, users, seconds, rows, Row.of("total", all, seconds));
+    }
+
+    double errorRate() {
+        return total.requests() == 0 ? 0 : (double) total.errors() / total.requests();
+    }
+
+    String table() {
+        StringBuilder out = new StringBuilder(String.format("%n%-20s %9s %8s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms"));
+        for (Row r : operations) out.append(r.line());
+        out.append(total.line());
+        return out.toString();
+    }
+
+    record Row(String operation, long requests, long errors, double throughput,
+               double p50Ms, double p95Ms, double p99Ms) {
+
+        static Row of(String operation, LoadDriver.Samples s, double seconds) {
+            long[] sorted = s.sorted();
+            return new Row(operation, s.count(), s.errors(), s.count() / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99));
+        }
+
+        private static double percentile(long[] sorted, double q) {
+            if (sorted.length == 0) return 0;
+            int idx = (int) Math.ceil(q * sorted.length) - 1;
+            return sorted[Math.max(0, idx)] / 1_000_000.0;
+        }
+
+        String line() {
+            return String.format("%-20s %9d %8d %9.1f %9.1f %9.1f %9.1f%n",
+                    operation, requests, errors, throughput, p50Ms, p95Ms, p99Ms);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds the test database with synthetic users and drives the transaction, dashboard, budget and planned-tx
+ * endpoints through the real HTTP stack, OIDC included. Run with {@code ./mvnw -Pload test}; every
+ * {@code load.*} setting can be passed as {@code -Dload.x=y}.
+ */
+@QuarkusTest
+@TestProfile(LoadProfile.class)
+@QuarkusTestResource(ExternalStubs.class)
+class LoadRun {
+
+    private static final Logger LOGGER = Logger.getLogger(LoadRun.class.getName());
+
+    @TestHTTPResource("/")
+    URL base;
+
+    @Inject
+    DataSource dataSource;
+
+    @ConfigProperty(name = "load.users", defaultValue = "200")
+    int users;
+
+    @ConfigProperty(name = "load.tx-per-user", defaultValue = "5000")
+    int txPerUser;
+
+    @ConfigProperty(name = "load.months", defaultValue = "24")
+    int months;
+
+    @ConfigProperty(name = "load.threads", defaultValue = "32")
+    int threads;
+
+    @ConfigProperty(name = "load.warmup", defaultValue = "PT15S")
+    Duration warmup;
+
+    @ConfigProperty(name = "load.duration", defaultValue = "PT60S")
+    Duration duration;
+
+    @ConfigProperty(name = "load.mix", defaultValue = LoadDriver.DEFAULT_MIX)
+    String mix;
+
+    @ConfigProperty(name = "load.report", defaultValue = "target/load-report.json")
+    Path reportFile;
+
+    @ConfigProperty(name = "load.max-error-rate", defaultValue = "0.01")
+    double maxErrorRate;
+
+    @Test
+    void run() throws Exception {
+        SyntheticData.seed(dataSource, users, txPerUser, months);
+
+        LoadDriver driver = new LoadDriver(base.toURI(), users, SyntheticData.firstCategoryId(dataSource), mix);
+        LoadReport report = driver.run(threads, warmup, duration);
+
+        LOGGER.info(report.table());
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+        LOGGER.info("Load report written to " + reportFile.toAbsolutePath());
+
+        assertThat(report.total().requests()).isPositive();
+        assertThat(report.errorRate()).isLessThanOrEqualTo(maxErrorRate);
+    }
+}
@@ -0,0 +1,43 @@
+package load;
+
+import io.smallrye.jwt.build.Jwt;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Signing key for the load run. The application verifies bearer tokens against the public half locally
+ * ({@code quarkus.oidc.public-key}), so requests go through the real OIDC filter without a Keycloak.
+ */
+final class LoadTokens {
+
+    private static final KeyPair KEYS = generate();
+
+    private LoadTokens() {
+    }
+
+    static String publicKey() {
+        return Base64.getEncoder().encodeToString(KEYS.getPublic().getEncoded());
+    }
+
+    static String mint(String userSub, Duration ttl) {
+        return Jwt.issuer("brokee-load")
+                .subject(userSub)
+                .upn(userSub)
+                .expiresIn(ttl)
+                .sign(KEYS.getPrivate());
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator gen = KeyPairGenerator.getInstance("RSA");
+            gen.initialize(2048);
+            return gen.generateKeyPair();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
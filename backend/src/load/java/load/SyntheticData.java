@@ -0,0 +1,174 @@
+package load;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Seeds synthetic users named {@code load-00000}, {@code load-00001}, ... with transactions spread over the
+ * last {@code months} months, their monthly rollups, budgets, planned transactions, savings goals and push tokens.
+ * Rows are generated on the server with set-based inserts, a chunk of users at a time, so millions of
+ * transactions take minutes rather than hours. A seed matching the requested shape is reused between runs.
+ */
+final class SyntheticData {
+
+    private static final Logger LOGGER = Logger.getLogger(SyntheticData.class.getName());
+    private static final int USERS_PER_CHUNK = 25;
+
+    private SyntheticData() {
+    }
+
+    static String user(int i) {
+        return String.format("load-%05d", i);
+    }
+
+    static void seed(DataSource ds, int users, int txPerUser, int months) throws SQLException {
+        try (Connection c = ds.getConnection()) {
+            if (alreadySeeded(c, users, txPerUser)) {
+                LOGGER.info("Reusing seed of " + users + " users x " + txPerUser + " transactions");
+                return;
+            }
+            long started = System.nanoTime();
+            wipe(c);
+            for (int first = 0; first < users; first += USERS_PER_CHUNK) {
+                int count = Math.min(USERS_PER_CHUNK, users - first);
+                insertTransactions(c, first, count, txPerUser, months);
+                LOGGER.info("Seeded transactions for " + (first + count) + "/" + users + " users");
+            }
+            insertPerUserRows(c, users);
+            rebuildRollups(c);
+            LOGGER.info(String.format("Seeded %d users x %d transactions in %ds",
+                    users, txPerUser, (System.nanoTime() - started) / 1_000_000_000L));
+        }
+    }
+
+    static long firstCategoryId(DataSource ds) throws SQLException {
+        try (Connection c = ds.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT MIN(id) FROM category");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static boolean alreadySeeded(Connection c, int users, int txPerUser) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                SELECT (SELECT COUNT(*) FROM user_push_token WHERE user_sub LIKE 'load-%'),
+                       (SELECT COUNT_BIG(*) FROM tx WHERE user_sub = ? AND note LIKE 'Synthetic #%')
+                """)) {
+            ps.setString(1, user(users - 1));
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1) == users && rs.getLong(2) == txPerUser;
+            }
+        }
+    }
+
+    private static void wipe(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            for (String table : new String[]{"tx", "tx_monthly_rollup", "budget", "planned_tx", "savings_goal",
+                    "user_push_token", "user_data_version"}) {
+                st.executeUpdate("DELETE FROM " + table + " WHERE user_sub LIKE 'load-%'");
+            }
+        }
+    }
+
+    private static void insertTransactions(Connection c, int first, int count, int txPerUser, int months)
+            throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement("""
+                WITH n AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1 AS i
+                           FROM sys.all_objects a CROSS JOIN sys.all_objects b),
+                     u AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1 + ? AS k
+                           FROM sys.all_objects),
+                     cat AS (SELECT id, ROW_NUMBER() OVER (ORDER BY id) - 1 AS r,
+                                    COUNT(*) OVER () AS total
+                             FROM category)
+                INSERT INTO tx (user_sub, type, amount, category_id, tx_time, latitude, longitude, location_name, note)
+                SELECT CONCAT('load-', RIGHT(CONCAT('0000', u.k), 5)),
+                       CASE WHEN h.v % 12 = 0 THEN 'I' ELSE 'E' END,
+                       CASE WHEN h.v % 12 = 0 THEN 900 + h.v % 2500 ELSE 1 + (h.v % 15000) / 100.0 END,
+                       cat.id,
+                       DATEADD(MINUTE, -(CAST(n.i AS BIGINT) * ? / ?) - h.v % 90, SYSUTCDATETIME()),
+                       CASE WHEN h.v % 5 = 0 THEN 45.780000 + (h.v % 60) / 1000.0 END,
+                       CASE WHEN h.v % 5 = 0 THEN 15.930000 + (h.v % 80) / 1000.0 END,
+                       CASE WHEN h.v % 5 = 0 AND h.v % 7 <> 0 THEN CONCAT('Spot ', h.v % 60) END,
+                       CONCAT('Synthetic #', n.i)
+                FROM u
+                CROSS JOIN n
+                CROSS APPLY (SELECT ABS(CHECKSUM(u.k, n.i)) AS v) h
+                JOIN cat ON cat.r = h.v % cat.total
+                """)) {
+            ps.setInt(1, txPerUser);
+            ps.setInt(2, count);
+            ps.setInt(3, first);
+            ps.setLong(4, months * 30L * 24 * 60);
+            ps.setInt(5, txPerUser);
+            ps.setQueryTimeout(0);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void insertPerUserRows(Connection c, int users) throws SQLException {
+        String usersCte = """
+                WITH u AS (SELECT TOP (?) ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) - 1 AS k
+                           FROM sys.all_objects a CROSS JOIN sys.all_objects b)
+                """;
+        String[] inserts = {
+                usersCte + """
+                        INSERT INTO budget (user_sub, category_id, amount)
+                        SELECT CONCAT('load-', RIGHT(CONCAT('0000', u.k), 5)), cat.id, 150 + (u.k * 37 + cat.id * 11) % 600
+                        FROM u CROSS JOIN (SELECT TOP 6 id FROM category ORDER BY id) cat
+                        """,
+                usersCte + """
+                        INSERT INTO planned_tx (user_sub, category_id, type, title, amount, due_date)
+                        SELECT CONCAT('load-', RIGHT(CONCAT('0000', u.k), 5)),
+                               (SELECT MIN(id) FROM category),
+                               CASE WHEN p.i % 4 = 0 THEN 'I' ELSE 'E' END,
+                               CONCAT('Planned #', p.i),
+                               20 + (u.k * 13 + p.i * 29) % 400,
+                               DATEADD(DAY, (u.k + p.i * 5) % 60, CAST(SYSUTCDATETIME() AS DATE))
+                        FROM u CROSS JOIN (SELECT TOP 12 ROW_NUMBER() OVER (ORDER BY (SELECT NULL)) AS i
+                                           FROM sys.all_objects) p
+                        """,
+                usersCte + """
+                        INSERT INTO savings_goal (user_sub, target_amt, target_date)
+                        SELECT CONCAT('load-', RIGHT(CONCAT('0000', u.k), 5)), 5000 + u.k % 20000,
+                               DATEADD(MONTH, 6 + u.k % 18, CAST(SYSUTCDATETIME() AS DATE))
+                        FROM u
+                        """,
+                usersCte + """
+                        INSERT INTO user_push_token (user_sub, player_id)
+                        SELECT CONCAT('load-', RIGHT(CONCAT('0000', u.k), 5)), CONCAT('load-player-', u.k)
+                        FROM u
+                        """
+        };
+        for (String sql : inserts) {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setInt(1, users);
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    private static void rebuildRollups(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.setQueryTimeout(0);
+            st.executeUpdate("""
+                    INSERT INTO tx_monthly_rollup (user_sub, month_start, category_id, type, total_amount, tx_count)
+                    SELECT user_sub,
+                           DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1),
+                           category_id,
+                           type,
+                           SUM(amount),
+                           COUNT(*)
+                    FROM tx
+                    WHERE user_sub LIKE 'load-%'
+                    GROUP BY user_sub, DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), category_id, type
+                    """);
+        }
+    }
+}
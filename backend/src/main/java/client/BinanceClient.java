@@ -7,6 +7,7 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import metrics.Measured;
 import model.external.AccountSummaryDTO;
 import model.external.BinanceAccountDTO;
 import model.external.TickerPriceDTO;
@@ -17,6 +18,7 @@ import java.util.List;
 
 @Path("/api/v3")
 @RegisterRestClient(configKey = "binance-api")
+@Measured("client.request")
 @Produces("application/json")
 @Consumes("application/json")
 public interface BinanceClient {
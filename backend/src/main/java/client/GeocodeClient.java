@@ -5,10 +5,12 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
+import metrics.Measured;
 import model.response.client.ReverseGeocodeResponse;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
 
 @RegisterRestClient(configKey = "geocode-api")
+@Measured("client.request")
 public interface GeocodeClient {
     @GET
     @Path("/reverse")
@@ -9,6 +9,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 import org.mapstruct.NullValuePropertyMappingStrategy;
 import org.mapstruct.ReportingPolicy;
+import repository.PlannedTxRepository;
 
 @Mapper(
         componentModel = "cdi",
@@ -17,6 +18,8 @@ import org.mapstruct.ReportingPolicy;
 public interface PlannedTxMapper {
     PlannedTxResponseDTO entityToResponse(PlannedTx e);
 
+    PlannedTxResponseDTO viewToResponse(PlannedTxRepository.PlannedTxView v);
+
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "userSub", ignore = true)
     PlannedTx requestToEntity(PlannedTxRequestDTO dto);
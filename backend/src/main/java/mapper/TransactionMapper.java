@@ -4,6 +4,7 @@ import model.entity.Transaction;
 import model.home.*;
 
 import org.mapstruct.*;
+import repository.TransactionRepository;
 
 import java.time.*;
 
@@ -16,6 +17,11 @@ public interface TransactionMapper {
             qualifiedByName = "offsetToLocal")
     TxResponseDTO entityToResponse(Transaction t);
 
+    @Mapping(target = "txTime",
+            source  = "txTime",
+            qualifiedByName = "offsetToLocal")
+    TxResponseDTO viewToResponse(TransactionRepository.TxView v);
+
     @Mapping(target = "id",            ignore = true)
     @Mapping(target = "userSub",       ignore = true)
     @Mapping(target = "note",          ignore = true)
@@ -0,0 +1,22 @@
+package metrics;
+
+import jakarta.enterprise.util.Nonbinding;
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Times every business method of the annotated bean (or REST client interface) under the timer {@link #value()},
+ * tagged with the bean's simple class name, the method name and the outcome. Tags never carry arguments.
+ */
+@InterceptorBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface Measured {
+
+    @Nonbinding
+    String value();
+}
@@ -0,0 +1,49 @@
+package metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Priority;
+import jakarta.inject.Inject;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+@Measured("")
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class MeasuredInterceptor {
+
+    // the target is a generated subclass or client wrapper; tag with the declaring bean or client interface
+    private static final ClassValue<String> OWNER = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Class<?> i : c.getInterfaces()) {
+                    if (i.getDeclaredAnnotation(Measured.class) != null) return i.getSimpleName();
+                }
+                if (c.getDeclaredAnnotation(Measured.class) != null) return c.getSimpleName();
+            }
+            return type.getSimpleName();
+        }
+    };
+
+    @Inject
+    MeterRegistry registry;
+
+    @AroundInvoke
+    Object measure(InvocationContext ctx) throws Exception {
+        String name = ctx.getInterceptorBinding(Measured.class).value();
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            Object result = ctx.proceed();
+            outcome = "ok";
+            return result;
+        } finally {
+            sample.stop(registry.timer(name,
+                    "class", OWNER.get(ctx.getTarget().getClass()),
+                    "method", ctx.getMethod().getName(),
+                    "outcome", outcome));
+        }
+    }
+}
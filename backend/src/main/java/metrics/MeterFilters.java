@@ -0,0 +1,37 @@
+package metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.Set;
+
+public class MeterFilters {
+
+    private static final Set<String> LATENCY_HISTOGRAMS = Set.of(
+            "http.server.requests", "repository.query", "client.request");
+
+    /**
+     * Prometheus buckets for the request, query and outbound-call timers, so p95/p99 can be computed across
+     * instances. Capped at 30s to keep the bucket count down.
+     */
+    @Produces
+    @Singleton
+    MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!LATENCY_HISTOGRAMS.contains(id.getName())) return config;
+                return DistributionStatisticConfig.builder()
+                        .percentilesHistogram(true)
+                        .minimumExpectedValue((double) Duration.ofMillis(1).toNanos())
+                        .maximumExpectedValue((double) Duration.ofSeconds(30).toNanos())
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
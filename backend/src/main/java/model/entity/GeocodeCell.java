@@ -0,0 +1,34 @@
+package model.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reverse-geocoded name of one geohash cell; the persistent tier behind the in-memory location cache.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "geocode_cell")
+public class GeocodeCell extends PanacheEntityBase {
+    @Id
+    @Column(length = 12)
+    private String geohash;
+
+    @Column(name = "location_name", nullable = false)
+    private String locationName;
+
+    @Column(name = "resolved_at", nullable = false, columnDefinition = "DATETIME2")
+    private LocalDateTime resolvedAt;
+}
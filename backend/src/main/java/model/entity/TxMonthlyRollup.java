@@ -0,0 +1,65 @@
+package model.entity;
+
+import io.quarkus.hibernate.orm.panache.PanacheEntityBase;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Per user / month / category / type totals of {@link Transaction} rows.
+ * Maintained incrementally by every write path so that analytics never scan {@code tx}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "tx_monthly_rollup")
+@IdClass(TxMonthlyRollup.PK.class)
+public class TxMonthlyRollup extends PanacheEntityBase {
+    @Id
+    @Column(name = "user_sub", length = 60)
+    private String userSub;
+
+    @Id
+    @Column(name = "month_start")
+    private LocalDate monthStart;
+
+    @Id
+    @Column(name = "category_id")
+    private Long categoryId;
+
+    @Id
+    @Column(name = "type", length = 1, columnDefinition = "CHAR(1)")
+    private String type;
+
+    @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "tx_count", nullable = false)
+    private int txCount;
+
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class PK implements Serializable {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        public String userSub;
+        public LocalDate monthStart;
+        public Long categoryId;
+        public String type;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.math.BigDecimal;
+import java.time.OffsetDateTime;
 import java.util.List;
 
 @Getter
@@ -14,4 +15,6 @@ public class FullPortfolioDTO {
     private List<TopCoinDTO> topMarketCoins;
     private List<CoinPortfolioEntryDTO> myCoins;
     private BigDecimal totalEurValue;
+    private OffsetDateTime marketDataAsOf;
+    private boolean marketDataStale;
 }
@@ -0,0 +1,18 @@
+package model.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PortfolioHistoryDTO {
+    private LocalDate from;
+    private LocalDate to;
+    private int stepDays;
+    private List<PortfolioPointDTO> points;
+}
@@ -0,0 +1,18 @@
+package model.external;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Getter
+@Setter
+@AllArgsConstructor
+public class PortfolioPointDTO {
+    private LocalDate date;
+    private BigDecimal totalEurValue;
+    private Map<String, BigDecimal> assetEurValues;
+}
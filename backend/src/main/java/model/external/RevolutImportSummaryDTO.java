@@ -0,0 +1,13 @@
+package model.external;
+
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+
+public record RevolutImportSummaryDTO(
+        int imported,
+        int skipped,
+        int pages,
+        @Nullable LocalDate from,
+        @Nullable LocalDate to
+) {}
@@ -0,0 +1,54 @@
+package model.helper;
+
+/**
+ * Standard base32 geohash. Precision 7 is a cell of roughly 150 x 150 m, close enough that every
+ * purchase inside it gets the same reverse-geocoded street.
+ */
+public final class GeoHash {
+
+    private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+    public static final int MAX_PRECISION = 12;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double lat, double lon, int precision) {
+        if (precision < 1 || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Geohash precision must be 1.." + MAX_PRECISION);
+        }
+        double latMin = -90, latMax = 90, lonMin = -180, lonMax = 180;
+        StringBuilder hash = new StringBuilder(precision);
+        boolean evenBit = true;
+        int bit = 0, ch = 0;
+
+        while (hash.length() < precision) {
+            if (evenBit) {
+                double mid = (lonMin + lonMax) / 2;
+                if (lon >= mid) {
+                    ch = (ch << 1) | 1;
+                    lonMin = mid;
+                } else {
+                    ch <<= 1;
+                    lonMax = mid;
+                }
+            } else {
+                double mid = (latMin + latMax) / 2;
+                if (lat >= mid) {
+                    ch = (ch << 1) | 1;
+                    latMin = mid;
+                } else {
+                    ch <<= 1;
+                    latMax = mid;
+                }
+            }
+            evenBit = !evenBit;
+            if (++bit == 5) {
+                hash.append(BASE32[ch]);
+                bit = 0;
+                ch = 0;
+            }
+        }
+        return hash.toString();
+    }
+}
@@ -1,12 +1,23 @@
 package model.helper;
 
+import jakarta.annotation.Nullable;
+
 import java.util.List;
 
+/**
+ * One page of results. In keyset mode {@code nextCursor} is the opaque position to pass back for the
+ * following page (null once exhausted) and {@code total} is {@link #UNKNOWN_TOTAL} when the count was skipped.
+ */
 public record PagedResponseDTO<T>(
         List<T> items,
         int page,
         int size,
-        long total
+        long total,
+        @Nullable String nextCursor
 ) {
-}
+    public static final long UNKNOWN_TOTAL = -1L;
 
+    public PagedResponseDTO(List<T> items, int page, int size, long total) {
+        this(items, page, size, total, null);
+    }
+}
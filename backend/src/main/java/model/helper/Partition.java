@@ -0,0 +1,23 @@
+package model.helper;
+
+/**
+ * One of {@code count} slices of the user set. Membership is decided in SQL from a hash of {@code user_sub},
+ * so every pod agrees on it without talking to the others.
+ */
+public record Partition(int index, int count) {
+
+    public static final Partition ALL = new Partition(0, 1);
+
+    public Partition {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Invalid partition " + index + "/" + count);
+        }
+    }
+
+    /**
+     * Predicate selecting this partition's rows, for a native query's WHERE clause.
+     */
+    public String where(String userSubColumn) {
+        return count == 1 ? "1 = 1" : "ABS(CHECKSUM(" + userSubColumn + ") % " + count + ") = " + index;
+    }
+}
@@ -0,0 +1,36 @@
+package model.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Keyset position in the {@code (txTime DESC, id DESC)} ordering of a user's transactions,
+ * exchanged with clients as an opaque base64url token.
+ */
+public record TxCursor(OffsetDateTime txTime, Long id) {
+
+    public String encode() {
+        String raw = txTime.toInstant() + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException when the token was not produced by {@link #encode()}
+     */
+    public static TxCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) throw new IllegalArgumentException("Malformed cursor");
+            return new TxCursor(
+                    Instant.parse(raw.substring(0, sep)).atOffset(ZoneOffset.UTC),
+                    Long.parseLong(raw.substring(sep + 1))
+            );
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Malformed cursor", ex);
+        }
+    }
+}
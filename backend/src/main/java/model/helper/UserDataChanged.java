@@ -0,0 +1,7 @@
+package model.helper;
+
+/**
+ * Fired inside the writing transaction whenever anything a user's GET endpoints return may have changed.
+ */
+public record UserDataChanged(String userSub) {
+}
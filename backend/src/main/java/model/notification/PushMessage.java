@@ -0,0 +1,13 @@
+package model.notification;
+
+/**
+ * A single push addressed to one recipient. Messages sharing {@code target}, {@code title} and {@code body}
+ * are coalesced into one OneSignal request.
+ */
+public record PushMessage(Target target, String recipient, String title, String body) {
+
+    public enum Target {
+        SUBSCRIPTION,
+        EXTERNAL_ID
+    }
+}
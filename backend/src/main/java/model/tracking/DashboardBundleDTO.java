@@ -0,0 +1,17 @@
+package model.tracking;
+
+import model.home.TxResponseDTO;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public record DashboardBundleDTO(
+        DashboardSummaryDTO summary,
+        List<TxResponseDTO> recent,
+        Map<String, BigDecimal> daily,
+        String month,
+        List<CategoryBreakdownDTO> categoryBreakdown,
+        List<LocationDTO> topLocations
+) {
+}
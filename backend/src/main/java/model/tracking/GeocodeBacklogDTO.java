@@ -0,0 +1,7 @@
+package model.tracking;
+
+public record GeocodeBacklogDTO(
+        long pending,
+        long exhausted
+) {
+}
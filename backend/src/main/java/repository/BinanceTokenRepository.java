@@ -4,12 +4,15 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import metrics.Measured;
 import model.entity.BinanceToken;
+import model.helper.Partition;
 
 import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class BinanceTokenRepository implements PanacheRepository<BinanceToken> {
 
     @Inject
@@ -46,4 +49,11 @@ public class BinanceTokenRepository implements PanacheRepository<BinanceToken> {
         return em.createQuery("SELECT DISTINCT t.userSub FROM BinanceToken t", String.class)
                 .getResultList();
     }
+
+    @SuppressWarnings("unchecked")
+    public List<BinanceToken> findInPartition(Partition partition) {
+        return em.createNativeQuery("SELECT * FROM binance_tokens WHERE " + partition.where("user_sub"),
+                        BinanceToken.class)
+                .getResultList();
+    }
 }
@@ -5,14 +5,18 @@ import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import metrics.Measured;
 import model.entity.Budget;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class BudgetRepository implements PanacheRepository<Budget> {
 
     @Inject
@@ -41,11 +45,6 @@ public class BudgetRepository implements PanacheRepository<Budget> {
                 .firstResult();
     }
 
-    public List<String> findAllUsersWithBudgets() {
-        return em.createQuery("SELECT DISTINCT b.userSub FROM Budget b", String.class)
-                .getResultList();
-    }
-
     public List<Long> findExistingCategoryIds(String userSub, Set<Long> categoryIds) {
         return list(
                 "userSub = ?1 and categoryId in ?2",
@@ -56,11 +55,31 @@ public class BudgetRepository implements PanacheRepository<Budget> {
                 .collect(Collectors.toList());
     }
 
-    public BigDecimal findAmountByUserAndCategory(String userSub, Long categoryId) {
-        return find("userSub = ?1 and categoryId = ?2", userSub, categoryId)
-                .firstResultOptional()
-                .map(Budget::getAmount)
-                .orElse(null);
+    /**
+     * The budget for one category together with what the user has spent on it in {@code month}, read from the
+     * monthly rollup. Every table is reached through its primary key; empty when no budget is set.
+     */
+    public Optional<BudgetStatus> findStatus(String userSub, Long categoryId, LocalDate month) {
+        List<?> rows = em.createNativeQuery("""
+                        SELECT b.amount, COALESCE(r.total_amount, 0), c.name
+                        FROM budget b
+                        JOIN category c ON c.id = b.category_id
+                        LEFT JOIN tx_monthly_rollup r
+                               ON r.user_sub = b.user_sub
+                              AND r.month_start = ?
+                              AND r.category_id = b.category_id
+                              AND r.type = 'E'
+                        WHERE b.user_sub = ? AND b.category_id = ?
+                        """)
+                .setParameter(1, month)
+                .setParameter(2, userSub)
+                .setParameter(3, categoryId)
+                .getResultList();
+        if (rows.isEmpty()) return Optional.empty();
+        Object[] r = (Object[]) rows.get(0);
+        return Optional.of(new BudgetStatus((BigDecimal) r[0], (BigDecimal) r[1], (String) r[2]));
     }
 
+    public record BudgetStatus(BigDecimal limit, BigDecimal spent, String categoryName) {
+    }
 }
@@ -4,12 +4,14 @@ import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
+import metrics.Measured;
 import model.entity.Category;
 
 import java.util.List;
 import java.util.Optional;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class CategoryRepository implements PanacheRepository<Category> {
     @Inject
     EntityManager em;
@@ -0,0 +1,50 @@
+package repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import io.quarkus.panache.common.Page;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+import model.entity.GeocodeCell;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+@ApplicationScoped
+@Measured("repository.query")
+public class GeocodeCellRepository implements PanacheRepositoryBase<GeocodeCell, String> {
+
+    @Inject
+    EntityManager em;
+
+    public Optional<String> findName(String geohash) {
+        return findByIdOptional(geohash).map(GeocodeCell::getLocationName);
+    }
+
+    public List<GeocodeCell> findMostRecent(int limit) {
+        return findAll(Sort.by("resolvedAt").descending())
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
+    public void upsert(String geohash, String locationName) {
+        em.createNativeQuery("""
+                        MERGE INTO geocode_cell WITH (HOLDLOCK) AS target
+                        USING (VALUES (:geohash, :name, :now)) AS source(geohash, location_name, resolved_at)
+                          ON target.geohash = source.geohash
+                        WHEN MATCHED THEN
+                          UPDATE SET location_name = source.location_name, resolved_at = source.resolved_at
+                        WHEN NOT MATCHED THEN
+                          INSERT (geohash, location_name, resolved_at)
+                          VALUES (source.geohash, source.location_name, source.resolved_at);
+                        """)
+                .setParameter("geohash", geohash)
+                .setParameter("name", locationName)
+                .setParameter("now", LocalDateTime.now(ZoneOffset.UTC))
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,41 @@
+package repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+@ApplicationScoped
+@Measured("repository.query")
+public class JobCheckpointRepository {
+
+    @Inject
+    EntityManager em;
+
+    /**
+     * Reads the job's checkpoint and holds an update lock on it until the calling transaction ends, so
+     * concurrent runners of the same job (e.g. on two pods) take turns.
+     */
+    public LocalDate lock(String jobName) {
+        Object value = em.createNativeQuery("""
+                        SELECT through_date FROM job_checkpoint WITH (UPDLOCK, HOLDLOCK) WHERE job_name = :job
+                        """)
+                .setParameter("job", jobName)
+                .getSingleResult();
+        return value instanceof Date d ? d.toLocalDate() : (LocalDate) value;
+    }
+
+    public void advance(String jobName, LocalDate throughDate) {
+        em.createNativeQuery("""
+                        UPDATE job_checkpoint
+                        SET through_date = :through, updated_at = SYSUTCDATETIME()
+                        WHERE job_name = :job AND through_date < :through
+                        """)
+                .setParameter("job", jobName)
+                .setParameter("through", throughDate)
+                .executeUpdate();
+    }
+}
@@ -4,15 +4,27 @@ import io.quarkus.hibernate.orm.panache.PanacheQuery;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import io.quarkus.panache.common.Sort;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
 import model.entity.PlannedTx;
+import model.helper.Partition;
+import org.hibernate.Session;
 
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class PlannedTxRepository implements PanacheRepository<PlannedTx> {
 
+    @Inject
+    EntityManager em;
+
     public PanacheQuery<PlannedTx> findWithFilters(
             String userSub,
             String title,
@@ -68,6 +80,12 @@ public class PlannedTxRepository implements PanacheRepository<PlannedTx> {
         );
     }
 
+    public PlannedTxView findViewByUserAndId(String userSub, Long id) {
+        return find("userSub = ?1 and id = ?2", userSub, id)
+                .project(PlannedTxView.class)
+                .firstResult();
+    }
+
     public List<PlannedTx> findByUser(String userSub) {
         return list("userSub", userSub);
     }
@@ -76,15 +94,112 @@ public class PlannedTxRepository implements PanacheRepository<PlannedTx> {
         return list("userSub = ?1 and title like ?2", userSub, "%" + title + "%");
     }
 
-    public List<PlannedTx> findByUserAndDueBetween(String userSub, LocalDate from, LocalDate to) {
-        return list("userSub = ?1 and dueDate between ?2 and ?3", userSub, from, to);
+    /**
+     * One chunk of planned transactions of the users in {@code partition} due between {@code from} and
+     * {@code to}, with category names, in id order after {@code afterId}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Upcoming> findUpcoming(LocalDate from, LocalDate to, Partition partition, long afterId, int limit) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT TOP (?) p.id, p.user_sub, p.title, p.due_date, c.name
+                        FROM planned_tx p
+                        JOIN category c ON c.id = p.category_id
+                        WHERE p.due_date BETWEEN ? AND ?
+                          AND p.id > ?
+                          AND %s
+                        ORDER BY p.id
+                        """.formatted(partition.where("p.user_sub")))
+                .setParameter(1, limit)
+                .setParameter(2, from)
+                .setParameter(3, to)
+                .setParameter(4, afterId)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new Upcoming(((Number) r[0]).longValue(), (String) r[1], (String) r[2],
+                        toLocalDate(r[3]), (String) r[4]))
+                .toList();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        return value instanceof Date d ? d.toLocalDate() : (LocalDate) value;
+    }
+
+    /**
+     * Next chunk of planned tx not booked yet and due after {@code afterDate} up to {@code through}, in id
+     * order after {@code afterId}.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Due> findUnbookedDue(LocalDate afterDate, LocalDate through, long afterId, int limit) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT TOP (?) id, user_sub, type, amount, category_id, due_date
+                        FROM planned_tx
+                        WHERE due_date > ? AND due_date <= ?
+                          AND booked_on IS NULL
+                          AND id > ?
+                        ORDER BY id
+                        """)
+                .setParameter(1, limit)
+                .setParameter(2, afterDate)
+                .setParameter(3, through)
+                .setParameter(4, afterId)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new Due(((Number) r[0]).longValue(), (String) r[1], (String) r[2], (BigDecimal) r[3],
+                        ((Number) r[4]).longValue(), toLocalDate(r[5])))
+                .toList();
     }
 
-    public List<PlannedTx> findDue(LocalDate date) {
-        return list("dueDate = ?1 and autoBook = true", date);
+    /**
+     * Planned tx still unbooked although due on or before {@code through}. The booking job only looks past its
+     * checkpoint, so these are never booked (e.g. rows already past due when the checkpoint was seeded).
+     */
+    public long countUnbookedThrough(LocalDate through) {
+        return ((Number) em.createNativeQuery("""
+                        SELECT COUNT(*) FROM planned_tx WHERE booked_on IS NULL AND due_date <= ?
+                        """)
+                .setParameter(1, through)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Sets {@code booked_on} on every row still unbooked, in one JDBC batch. Returns the rows this call
+     * claimed; the others were booked by a concurrent or earlier run and must not be booked again.
+     */
+    public List<Due> claimForBooking(List<Due> rows, LocalDate bookedOn) {
+        if (rows.isEmpty()) return List.of();
+        return em.unwrap(Session.class).doReturningWork(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "UPDATE planned_tx SET booked_on = ? WHERE id = ? AND booked_on IS NULL")) {
+                for (Due row : rows) {
+                    ps.setObject(1, bookedOn);
+                    ps.setLong(2, row.id());
+                    ps.addBatch();
+                }
+                int[] counts = ps.executeBatch();
+                List<Due> claimed = new ArrayList<>(rows.size());
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) claimed.add(rows.get(i));
+                }
+                return claimed;
+            }
+        });
     }
 
     public boolean deleteByUserAndId(String userSub, Long id) {
         return delete("userSub = ?1 and id = ?2", userSub, id) > 0;
     }
+
+    /**
+     * Read-only row for the list and detail endpoints, selected without attaching entities.
+     */
+    public record PlannedTxView(Long id, String type, Long categoryId, String title, BigDecimal amount,
+                                LocalDate dueDate) {
+    }
+
+    public record Due(long id, String userSub, String type, BigDecimal amount, Long categoryId,
+                      LocalDate dueDate) {
+    }
+
+    public record Upcoming(long id, String userSub, String title, LocalDate dueDate, String categoryName) {
+    }
 }
@@ -0,0 +1,109 @@
+package repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+import org.hibernate.Session;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ApplicationScoped
+@Measured("repository.query")
+public class PortfolioSnapshotRepository {
+
+    @Inject
+    EntityManager em;
+
+    /**
+     * Stores the day's valuations as JDBC batches, replacing any earlier snapshot of the same users and day.
+     */
+    public void saveAll(LocalDate day, List<Valuation> valuations) {
+        if (valuations.isEmpty()) return;
+        Date date = Date.valueOf(day);
+        em.unwrap(Session.class).doWork(conn -> {
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM portfolio_snapshot WHERE user_sub = ? AND snapshot_date = ?")) {
+                for (Valuation v : valuations) {
+                    delete.setString(1, v.userSub());
+                    delete.setDate(2, date);
+                    delete.addBatch();
+                }
+                delete.executeBatch();
+            }
+            try (PreparedStatement insert = conn.prepareStatement(
+                    "INSERT INTO portfolio_snapshot (user_sub, snapshot_date, total_eur) VALUES (?, ?, ?)")) {
+                for (Valuation v : valuations) {
+                    insert.setString(1, v.userSub());
+                    insert.setDate(2, date);
+                    insert.setBigDecimal(3, v.totalEur());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement insert = conn.prepareStatement("""
+                    INSERT INTO portfolio_snapshot_asset (user_sub, snapshot_date, asset, eur_value)
+                    VALUES (?, ?, ?, ?)
+                    """)) {
+                for (Valuation v : valuations) {
+                    for (Map.Entry<String, BigDecimal> asset : v.assets().entrySet()) {
+                        insert.setString(1, v.userSub());
+                        insert.setDate(2, date);
+                        insert.setString(3, asset.getKey());
+                        insert.setBigDecimal(4, asset.getValue());
+                        insert.addBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * The user's snapshots between {@code from} and {@code to}, one per {@code stepDays}-day bucket counted
+     * from {@code from}: the latest snapshot in each bucket, with its per-asset values, in date order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Point> findHistory(String userSub, LocalDate from, LocalDate to, int stepDays) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT p.snapshot_date, p.total_eur, a.asset, a.eur_value
+                        FROM (SELECT snapshot_date, total_eur,
+                                     ROW_NUMBER() OVER (PARTITION BY DATEDIFF(DAY, ?, snapshot_date) / ?
+                                                        ORDER BY snapshot_date DESC) AS rn
+                              FROM portfolio_snapshot
+                              WHERE user_sub = ? AND snapshot_date BETWEEN ? AND ?) p
+                        LEFT JOIN portfolio_snapshot_asset a
+                          ON a.user_sub = ? AND a.snapshot_date = p.snapshot_date
+                        WHERE p.rn = 1
+                        ORDER BY p.snapshot_date, a.asset
+                        """)
+                .setParameter(1, from)
+                .setParameter(2, stepDays)
+                .setParameter(3, userSub)
+                .setParameter(4, from)
+                .setParameter(5, to)
+                .setParameter(6, userSub)
+                .getResultList();
+
+        Map<LocalDate, Point> points = new LinkedHashMap<>();
+        for (Object[] r : rows) {
+            LocalDate date = r[0] instanceof Date d ? d.toLocalDate() : (LocalDate) r[0];
+            Point point = points.computeIfAbsent(date,
+                    k -> new Point(k, (BigDecimal) r[1], new LinkedHashMap<>()));
+            if (r[2] != null) point.assets().put((String) r[2], (BigDecimal) r[3]);
+        }
+        return List.copyOf(points.values());
+    }
+
+    public record Valuation(String userSub, BigDecimal totalEur, Map<String, BigDecimal> assets) {
+    }
+
+    public record Point(LocalDate date, BigDecimal totalEur, Map<String, BigDecimal> assets) {
+    }
+}
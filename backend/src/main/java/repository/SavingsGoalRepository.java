@@ -2,10 +2,23 @@ package repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
 import model.entity.SavingsGoal;
+import model.helper.Partition;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class SavingsGoalRepository implements PanacheRepository<SavingsGoal> {
+
+    @Inject
+    EntityManager em;
+
     public SavingsGoal findByUser(String userSub) {
         return find("userSub", userSub).firstResult();
     }
@@ -13,4 +26,36 @@ public class SavingsGoalRepository implements PanacheRepository<SavingsGoal> {
     public boolean deleteByUser(String userSub) {
         return delete("userSub", userSub) > 0;
     }
+
+    /**
+     * One chunk of users in {@code partition}, after {@code afterUserSub}, whose goal would need more than
+     * {@code dailyThreshold} saved per remaining day. Savings are the all-time income booked to
+     * {@code savingsCategory}, summed from the monthly rollup.
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> findUsersWithGoalAtRisk(LocalDate today, String savingsCategory, BigDecimal dailyThreshold,
+                                               Partition partition, String afterUserSub, int limit) {
+        return em.createNativeQuery("""
+                        SELECT TOP (?) g.user_sub
+                        FROM savings_goal g
+                        OUTER APPLY (SELECT COALESCE(SUM(r.total_amount), 0) AS saved
+                                     FROM tx_monthly_rollup r
+                                     JOIN category c ON c.id = r.category_id
+                                     WHERE r.user_sub = g.user_sub
+                                       AND r.type = 'I'
+                                       AND c.name = ?) s
+                        WHERE g.user_sub > ?
+                          AND g.target_date > ?
+                          AND g.target_amt - s.saved > ? * DATEDIFF(DAY, ?, g.target_date)
+                          AND %s
+                        ORDER BY g.user_sub
+                        """.formatted(partition.where("g.user_sub")))
+                .setParameter(1, limit)
+                .setParameter(2, savingsCategory)
+                .setParameter(3, afterUserSub)
+                .setParameter(4, today)
+                .setParameter(5, dailyThreshold)
+                .setParameter(6, today)
+                .getResultList();
+    }
 }
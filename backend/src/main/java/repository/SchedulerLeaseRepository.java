@@ -0,0 +1,79 @@
+package repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leases in {@code scheduler_lease}. All times come from the database clock, so skew between pods does not
+ * matter.
+ */
+@ApplicationScoped
+@Measured("repository.query")
+public class SchedulerLeaseRepository {
+
+    @Inject
+    EntityManager em;
+
+    /**
+     * Takes the lease for {@code atMost} unless another owner holds an unexpired one. Empty when the lease is
+     * busy.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<Grant> tryAcquire(String leaseName, String owner, Duration atMost) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        MERGE scheduler_lease WITH (HOLDLOCK) AS l
+                        USING (SELECT ? AS lease_name) AS s ON l.lease_name = s.lease_name
+                        WHEN MATCHED AND l.expires_at <= SYSUTCDATETIME() THEN
+                            UPDATE SET owner = ?, locked_at = SYSUTCDATETIME(),
+                                       expires_at = DATEADD(SECOND, ?, SYSUTCDATETIME()), released_at = NULL
+                        WHEN NOT MATCHED THEN
+                            INSERT (lease_name, owner, locked_at, expires_at)
+                            VALUES (s.lease_name, ?, SYSUTCDATETIME(), DATEADD(SECOND, ?, SYSUTCDATETIME()))
+                        OUTPUT deleted.owner,
+                               CASE WHEN deleted.lease_name IS NOT NULL AND deleted.released_at IS NULL
+                                    THEN 1 ELSE 0 END;
+                        """)
+                .setParameter(1, leaseName)
+                .setParameter(2, owner)
+                .setParameter(3, atMost.toSeconds())
+                .setParameter(4, owner)
+                .setParameter(5, atMost.toSeconds())
+                .getResultList();
+        return rows.stream()
+                .findFirst()
+                .map(r -> new Grant((String) r[0], ((Number) r[1]).intValue() == 1));
+    }
+
+    /**
+     * Marks the lease finished. It stays taken until {@code atLeast} after it was acquired, so a pod whose
+     * trigger fires a little later does not run the job again. False when the lease expired and was taken
+     * over before this call.
+     */
+    public boolean release(String leaseName, String owner, Duration atLeast) {
+        return em.createNativeQuery("""
+                        UPDATE scheduler_lease
+                        SET released_at = SYSUTCDATETIME(),
+                            expires_at = CASE WHEN DATEADD(SECOND, ?, locked_at) > SYSUTCDATETIME()
+                                              THEN DATEADD(SECOND, ?, locked_at) ELSE SYSUTCDATETIME() END
+                        WHERE lease_name = ? AND owner = ? AND released_at IS NULL
+                        """)
+                .setParameter(1, atLeast.toSeconds())
+                .setParameter(2, atLeast.toSeconds())
+                .setParameter(3, leaseName)
+                .setParameter(4, owner)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * @param previousOwner who held the lease before, null for a new lease
+     * @param abandoned     the previous owner's lease ran out without being released
+     */
+    public record Grant(String previousOwner, boolean abandoned) {
+    }
+}
@@ -9,17 +9,26 @@ import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
+import metrics.Measured;
 import model.entity.Transaction;
+import model.helper.TxCursor;
+import org.hibernate.Session;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class TransactionRepository implements PanacheRepository<Transaction> {
 
     @Inject
@@ -31,9 +40,27 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
             BigDecimal minAmount,
             BigDecimal maxAmount,
             LocalDateTime dueFrom,
-            LocalDateTime dueTo,
+            LocalDateTime dueBefore,
             String note,
             String categoryName
+    ) {
+        return findByUserWithFilters(userSub, type, minAmount, maxAmount, dueFrom, dueBefore, note, categoryName, null);
+    }
+
+    /**
+     * Same filters, ordered by {@code (txTime, id)} descending; with a cursor the query seeks past it
+     * on {@code ix_tx_user_time} instead of relying on OFFSET.
+     */
+    public PanacheQuery<Transaction> findByUserWithFilters(
+            String userSub,
+            String type,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            LocalDateTime dueFrom,
+            LocalDateTime dueBefore,
+            String note,
+            String categoryName,
+            TxCursor after
     ) {
         StringBuilder ql = new StringBuilder("userSub = ?1");
         List<Object> params = new ArrayList<>();
@@ -56,9 +83,9 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
             ql.append(" AND txTime >= ?").append(idx++);
             params.add(dueFrom);
         }
-        if (dueTo != null) {
-            ql.append(" AND txTime <= ?").append(idx++);
-            params.add(dueTo);
+        if (dueBefore != null) {
+            ql.append(" AND txTime < ?").append(idx++);
+            params.add(dueBefore);
         }
         if (note != null && !note.isBlank()) {
             ql.append(" AND LOWER(note) LIKE ?").append(idx++);
@@ -68,15 +95,143 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
             ql.append(" AND categoryId IN (SELECT c.id FROM Category c WHERE LOWER(c.name) LIKE ?")
                     .append(idx).append(")");
             params.add("%" + categoryName.toLowerCase() + "%");
+            idx++;
+        }
+        if (after != null) {
+            ql.append(" AND (txTime < ?").append(idx)
+                    .append(" OR (txTime = ?").append(idx).append(" AND id < ?").append(idx + 1).append("))");
+            params.add(after.txTime().withOffsetSameInstant(ZoneOffset.UTC));
+            params.add(after.id());
         }
 
         return find(
                 ql.toString(),
-                Sort.by("txTime", Sort.Direction.Descending),
+                Sort.by("txTime", Sort.Direction.Descending).and("id", Sort.Direction.Descending),
                 params.toArray()
         );
     }
 
+    /**
+     * Creates the session-scoped staging table used by a fingerprinted import. Plain statements on purpose:
+     * a temp table created inside a prepared call would be dropped again when that call returns.
+     */
+    public void openImportStage() {
+        em.unwrap(Session.class).doWork(conn -> {
+            try (Statement st = conn.createStatement()) {
+                st.execute("""
+                        IF OBJECT_ID('tempdb..#tx_import') IS NOT NULL DROP TABLE #tx_import;
+                        CREATE TABLE #tx_import
+                        (
+                            fingerprint CHAR(64)       NOT NULL PRIMARY KEY,
+                            type        CHAR(1)        NOT NULL,
+                            amount      DECIMAL(18, 2) NOT NULL,
+                            tx_time     DATETIME2      NOT NULL,
+                            note        VARCHAR(500)   NULL,
+                            is_new      BIT            NOT NULL DEFAULT 0
+                        );
+                        """);
+            }
+        });
+    }
+
+    public void stageImport(List<ImportRow> rows) {
+        if (rows.isEmpty()) return;
+        em.unwrap(Session.class).doWork(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    INSERT INTO #tx_import (fingerprint, type, amount, tx_time, note)
+                    VALUES (?, ?, ?, ?, ?)
+                    """)) {
+                for (ImportRow r : rows) {
+                    Transaction t = r.tx();
+                    ps.setString(1, r.fingerprint());
+                    ps.setString(2, t.getType());
+                    ps.setBigDecimal(3, t.getAmount());
+                    ps.setObject(4, t.getTxTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+                    ps.setString(5, t.getNote());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Inserts every staged row whose fingerprint the user doesn't have yet and drops the stage. The anti-join
+     * holds range locks on the fingerprint index so two concurrent uploads of the same statement serialise
+     * instead of tripping the unique index. Returns per-month totals of the rows actually inserted.
+     */
+    public ImportMerge mergeImportStage(String userSub, Long categoryId) {
+        return em.unwrap(Session.class).doReturningWork(conn -> {
+            try (PreparedStatement mark = conn.prepareStatement("""
+                    UPDATE s SET is_new = 1
+                    FROM #tx_import s
+                    WHERE NOT EXISTS (SELECT 1
+                                      FROM tx t WITH (UPDLOCK, HOLDLOCK)
+                                      WHERE t.user_sub = ?
+                                        AND t.import_fingerprint = s.fingerprint)
+                    """);
+                 PreparedStatement insert = conn.prepareStatement("""
+                         INSERT INTO tx (user_sub, type, amount, category_id, tx_time, note, import_fingerprint)
+                         SELECT ?, type, amount, ?, tx_time, note, fingerprint
+                         FROM #tx_import
+                         WHERE is_new = 1
+                         """);
+                 Statement st = conn.createStatement()) {
+                mark.setString(1, userSub);
+                mark.executeUpdate();
+
+                insert.setString(1, userSub);
+                insert.setLong(2, categoryId);
+                int inserted = insert.executeUpdate();
+
+                int staged;
+                List<ImportMonthTotal> months = new ArrayList<>();
+                try (ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM #tx_import")) {
+                    rs.next();
+                    staged = rs.getInt(1);
+                }
+                try (ResultSet rs = st.executeQuery("""
+                        SELECT DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), type, SUM(amount), COUNT(*)
+                        FROM #tx_import
+                        WHERE is_new = 1
+                        GROUP BY DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), type
+                        """)) {
+                    while (rs.next()) {
+                        months.add(new ImportMonthTotal(
+                                rs.getObject(1, LocalDate.class), rs.getString(2), rs.getBigDecimal(3), rs.getInt(4)));
+                    }
+                }
+                st.execute("DROP TABLE #tx_import");
+                return new ImportMerge(inserted, staged - inserted, months);
+            }
+        });
+    }
+
+    /**
+     * Inserts {@code txs} in one JDBC batch, bypassing the persistence context (IDENTITY ids rule out
+     * Hibernate's own insert batching). The entities are not attached and their ids stay unset.
+     */
+    public void insertAll(List<Transaction> txs) {
+        if (txs.isEmpty()) return;
+        em.unwrap(Session.class).doWork(conn -> {
+            try (PreparedStatement ps = conn.prepareStatement("""
+                    INSERT INTO tx (user_sub, type, amount, category_id, tx_time, note)
+                    VALUES (?, ?, ?, ?, ?, ?)
+                    """)) {
+                for (Transaction t : txs) {
+                    ps.setString(1, t.getUserSub());
+                    ps.setString(2, t.getType());
+                    ps.setBigDecimal(3, t.getAmount());
+                    ps.setLong(4, t.getCategoryId());
+                    ps.setObject(5, t.getTxTime().withOffsetSameInstant(ZoneOffset.UTC).toLocalDateTime());
+                    ps.setString(6, t.getNote());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
     public Transaction create(Transaction tx) {
         persist(tx);
         return tx;
@@ -108,6 +263,17 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
                 .list();
     }
 
+    public List<TxView> findRecentViews(String userSub, int limit) {
+        return find(
+                "userSub",
+                Sort.by("txTime").descending(),
+                userSub
+        )
+                .project(TxView.class)
+                .page(Page.ofSize(limit))
+                .list();
+    }
+
     public PanacheQuery<Transaction> findByUserSorted(String userSub) {
         return find(
                 "userSub",
@@ -126,44 +292,53 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
         ).list();
     }
 
+    /**
+     * Net amount per day with activity, income positive and expenses negative, for {@code start..end} inclusive.
+     */
     public List<DailySum> findDailyExpenses(String userSub,
                                             LocalDate start,
                                             LocalDate end) {
         TypedQuery<Object[]> q = getEntityManager()
                 .createQuery(
-                        "SELECT CAST(t.txTime AS date), COALESCE(SUM(t.amount),0) " +
+                        "SELECT CAST(t.txTime AS date), " +
+                                "       COALESCE(SUM(CASE WHEN t.type = 'E' THEN -t.amount ELSE t.amount END),0) " +
                                 "FROM Transaction t " +
-                                "WHERE t.userSub = :u AND t.type = 'E' " +
+                                "WHERE t.userSub = :u " +
                                 "  AND t.txTime >= :from AND t.txTime < :to " +
                                 "GROUP BY CAST(t.txTime AS date) " +
                                 "ORDER BY CAST(t.txTime AS date)",
                         Object[].class
                 );
         q.setParameter("u", userSub);
-        q.setParameter("from", start.atStartOfDay());
-        q.setParameter("to", end.plusDays(1).atStartOfDay());
+        q.setParameter("from", start.atStartOfDay().atOffset(ZoneOffset.UTC));
+        q.setParameter("to", end.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC));
         return q.getResultList()
                 .stream()
                 .map(r -> new DailySum((LocalDate) r[0], (BigDecimal) r[1]))
                 .toList();
     }
 
+    /**
+     * Net amount per month of {@code year} with activity, read from the monthly rollup.
+     */
     public List<MonthlySum> findMonthlyExpenses(String userSub, int year) {
         TypedQuery<Object[]> q = getEntityManager()
                 .createQuery(
-                        "SELECT FUNCTION('MONTH', t.txTime), COALESCE(SUM(t.amount),0) " +
-                                "FROM Transaction t " +
-                                "WHERE t.userSub = :u AND t.type = 'E' " +
-                                "  AND FUNCTION('YEAR', t.txTime) = :yr " +
-                                "GROUP BY FUNCTION('MONTH', t.txTime) " +
-                                "ORDER BY FUNCTION('MONTH', t.txTime)",
+                        "SELECT r.monthStart, " +
+                                "       COALESCE(SUM(CASE WHEN r.type = 'E' THEN -r.totalAmount ELSE r.totalAmount END),0) " +
+                                "FROM TxMonthlyRollup r " +
+                                "WHERE r.userSub = :u " +
+                                "  AND r.monthStart >= :from AND r.monthStart < :to " +
+                                "GROUP BY r.monthStart " +
+                                "ORDER BY r.monthStart",
                         Object[].class
                 );
         q.setParameter("u", userSub);
-        q.setParameter("yr", year);
+        q.setParameter("from", LocalDate.of(year, 1, 1));
+        q.setParameter("to", LocalDate.of(year + 1, 1, 1));
         return q.getResultList()
                 .stream()
-                .map(r -> new MonthlySum(((Number) r[0]).intValue(),
+                .map(r -> new MonthlySum(((LocalDate) r[0]).getMonthValue(),
                         (BigDecimal) r[1]))
                 .toList();
     }
@@ -176,6 +351,16 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
         ).firstResult();
     }
 
+    public TxView findViewByIdAndUser(String userSub, Long id) {
+        return find(
+                "userSub = ?1 and id = ?2",
+                userSub,
+                id
+        )
+                .project(TxView.class)
+                .firstResult();
+    }
+
     public boolean deleteByIdAndUser(String userSub, Long id) {
         return delete(
                 "userSub = ?1 and id = ?2",
@@ -184,35 +369,51 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
         ) > 0;
     }
 
-    public List<Transaction> findByUserAndDateRange(String userSub, OffsetDateTime from, OffsetDateTime to) {
+    public List<Transaction> findByUserAndDateRange(String userSub, OffsetDateTime from, OffsetDateTime before) {
         return list(
-                "userSub = ?1 and txTime >= ?2 and txTime <= ?3",
+                "userSub = ?1 and txTime >= ?2 and txTime < ?3",
                 Sort.by("txTime", Sort.Direction.Ascending),
-                userSub, from, to
+                userSub, from, before
         );
     }
 
+    public List<TxView> findViewsByDateRange(String userSub, OffsetDateTime from, OffsetDateTime before) {
+        return find(
+                "userSub = ?1 and txTime >= ?2 and txTime < ?3",
+                Sort.by("txTime", Sort.Direction.Ascending),
+                userSub, from, before
+        )
+                .project(TxView.class)
+                .list();
+    }
+
     public BigDecimal sumByType(String userSub, String type) {
-        return find("userSub = ?1 and type = ?2", userSub, type)
-                .stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        return getEntityManager().createQuery("""
+                        SELECT COALESCE(SUM(r.totalAmount), 0)
+                        FROM TxMonthlyRollup r
+                        WHERE r.userSub = :user AND r.type = :type
+                        """, BigDecimal.class)
+                .setParameter("user", userSub)
+                .setParameter("type", type)
+                .getSingleResult();
     }
 
     public List<Tuple> findSpendingVsIncomeByYear(String userSub, int year) {
         return getEntityManager().createQuery(
                         """
                                 SELECT 
-                                  FUNCTION('FORMAT', t.txTime, 'yyyy-MM') AS month,
-                                  SUM(CASE WHEN t.type = 'E' THEN t.amount ELSE 0 END) AS expenses,
-                                  SUM(CASE WHEN t.type = 'I' THEN t.amount ELSE 0 END) AS income
-                                FROM Transaction t
-                                WHERE t.userSub = :user AND FUNCTION('YEAR', t.txTime) = :yr
-                                GROUP BY FUNCTION('FORMAT', t.txTime, 'yyyy-MM')
-                                ORDER BY month
+                                  FUNCTION('FORMAT', r.monthStart, 'yyyy-MM') AS month,
+                                  SUM(CASE WHEN r.type = 'E' THEN r.totalAmount ELSE 0 END) AS expenses,
+                                  SUM(CASE WHEN r.type = 'I' THEN r.totalAmount ELSE 0 END) AS income
+                                FROM TxMonthlyRollup r
+                                WHERE r.userSub = :user
+                                  AND r.monthStart >= :from AND r.monthStart < :to
+                                GROUP BY r.monthStart
+                                ORDER BY r.monthStart
                                 """, Tuple.class)
                 .setParameter("user", userSub)
-                .setParameter("yr", year)
+                .setParameter("from", LocalDate.of(year, 1, 1))
+                .setParameter("to", LocalDate.of(year + 1, 1, 1))
                 .getResultList();
     }
 
@@ -221,17 +422,17 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
                         """
                                 SELECT 
                                   c.name AS category,
-                                  SUM(t.amount) AS amount
-                                FROM Transaction t
-                                JOIN Category c ON t.categoryId = c.id
-                                WHERE t.userSub = :user
-                                  AND FUNCTION('FORMAT', t.txTime, 'yyyy-MM') = :mk
-                                  AND t.type = 'E'
+                                  SUM(r.totalAmount) AS amount
+                                FROM TxMonthlyRollup r
+                                JOIN Category c ON r.categoryId = c.id
+                                WHERE r.userSub = :user
+                                  AND r.monthStart = :month
+                                  AND r.type = 'E'
                                 GROUP BY c.name
                                 ORDER BY amount DESC
                                 """, Tuple.class)
                 .setParameter("user", userSub)
-                .setParameter("mk", monthKey)
+                .setParameter("month", YearMonth.parse(monthKey).atDay(1))
                 .getResultList();
     }
 
@@ -256,73 +457,196 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
                 .getResultList();
     }
 
-    public Tuple findTotalExpensesAndIncome(String userSub) {
-        return getEntityManager().createQuery(
+    /**
+     * Home-screen totals and one month's category split in a single pass over the rollup: the {@code (type)}
+     * grouping set yields all-time totals, the {@code (type, category)} set that month's per-category sums.
+     */
+    @SuppressWarnings("unchecked")
+    public DashboardTotals findDashboardTotals(String userSub, YearMonth month) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT r.type,
+                               c.name,
+                               SUM(r.total_amount),
+                               SUM(CASE WHEN r.month_start = :month THEN r.total_amount END),
+                               GROUPING(c.name)
+                        FROM tx_monthly_rollup r
+                                 JOIN category c ON c.id = r.category_id
+                        WHERE r.user_sub = :user
+                        GROUP BY GROUPING SETS ((r.type), (r.type, c.name))
+                        """)
+                .setParameter("user", userSub)
+                .setParameter("month", month.atDay(1))
+                .getResultList();
+
+        BigDecimal income = BigDecimal.ZERO;
+        BigDecimal expenses = BigDecimal.ZERO;
+        List<CategorySum> categories = new ArrayList<>();
+        for (Object[] r : rows) {
+            String type = (String) r[0];
+            boolean typeTotal = ((Number) r[4]).intValue() == 1;
+            if (typeTotal) {
+                if ("I".equals(type)) income = (BigDecimal) r[2];
+                else expenses = (BigDecimal) r[2];
+            } else if ("E".equals(type) && r[3] != null) {
+                categories.add(new CategorySum((String) r[1], (BigDecimal) r[3]));
+            }
+        }
+        categories.sort((a, b) -> b.amount().compareTo(a.amount()));
+        return new DashboardTotals(new Totals(income, expenses), categories);
+    }
+
+    /**
+     * The per-transaction parts of the home screen in one round trip: latest rows, signed per-day net from
+     * {@code dailyFrom} up to (excluding) {@code dailyBefore}, and the top expense locations. Each branch seeks its own {@code ix_tx_user_*} index.
+     */
+    @SuppressWarnings("unchecked")
+    public DashboardActivity findDashboardActivity(String userSub, int recentLimit, LocalDateTime dailyFrom,
+                                                   LocalDateTime dailyBefore, int locationLimit) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT 'R', ROW_NUMBER() OVER (ORDER BY r.tx_time DESC, r.id DESC),
+                               r.id, r.type, r.amount, r.category_id, r.tx_time,
+                               NULL, NULL, r.location_name, r.note
+                        FROM (SELECT TOP (:recent) id, type, amount, category_id, tx_time, location_name, note
+                              FROM tx
+                              WHERE user_sub = :user
+                              ORDER BY tx_time DESC, id DESC) r
+                        UNION ALL
+                        SELECT 'D', ROW_NUMBER() OVER (ORDER BY CAST(tx_time AS date)),
+                               NULL, NULL, SUM(CASE WHEN type = 'E' THEN -amount ELSE amount END), NULL,
+                               CAST(CAST(tx_time AS date) AS DATETIME2),
+                               NULL, NULL, NULL, NULL
+                        FROM tx
+                        WHERE user_sub = :user
+                          AND tx_time >= :dailyFrom
+                          AND tx_time < :dailyBefore
+                        GROUP BY CAST(tx_time AS date)
+                        UNION ALL
+                        SELECT 'L', ROW_NUMBER() OVER (ORDER BY l.amount DESC),
+                               NULL, NULL, l.amount, NULL, NULL,
+                               l.latitude, l.longitude, l.location_name, NULL
+                        FROM (SELECT TOP (:locations) latitude, longitude, location_name, SUM(amount) AS amount
+                              FROM tx
+                              WHERE user_sub = :user
+                                AND type = 'E'
+                                AND latitude IS NOT NULL
+                                AND longitude IS NOT NULL
+                              GROUP BY latitude, longitude, location_name
+                              ORDER BY SUM(amount) DESC) l
+                        ORDER BY 1, 2
+                        """)
+                .setParameter("user", userSub)
+                .setParameter("recent", recentLimit)
+                .setParameter("dailyFrom", dailyFrom)
+                .setParameter("dailyBefore", dailyBefore)
+                .setParameter("locations", locationLimit)
+                .getResultList();
+
+        List<TxView> recent = new ArrayList<>();
+        List<DailySum> daily = new ArrayList<>();
+        List<LocationSum> locations = new ArrayList<>();
+        for (Object[] r : rows) {
+            switch (String.valueOf(r[0])) {
+                case "R" -> recent.add(new TxView(
+                        ((Number) r[2]).longValue(), String.valueOf(r[3]), (BigDecimal) r[4],
+                        ((Number) r[5]).longValue(), toLocalDateTime(r[6]).atOffset(ZoneOffset.UTC),
+                        (String) r[9], (String) r[10]));
+                case "D" -> daily.add(new DailySum(toLocalDateTime(r[6]).toLocalDate(), (BigDecimal) r[4]));
+                case "L" -> locations.add(new LocationSum(
+                        (BigDecimal) r[7], (BigDecimal) r[8], (String) r[9], (BigDecimal) r[4]));
+                default -> {
+                }
+            }
+        }
+        return new DashboardActivity(recent, daily, locations);
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        return value instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) value;
+    }
+
+    public Totals findTotals(String userSub) {
+        Object[] r = getEntityManager().createQuery(
                         """
                                 SELECT
-                                  SUM(CASE WHEN t.type = 'E' THEN t.amount ELSE 0 END) AS totalExpenses,
-                                  SUM(CASE WHEN t.type = 'I' THEN t.amount ELSE 0 END) AS totalIncome
-                                FROM Transaction t
-                                WHERE t.userSub = :user
-                                """, Tuple.class)
+                                  COALESCE(SUM(CASE WHEN r.type = 'I' THEN r.totalAmount ELSE 0 END), 0),
+                                  COALESCE(SUM(CASE WHEN r.type = 'E' THEN r.totalAmount ELSE 0 END), 0)
+                                FROM TxMonthlyRollup r
+                                WHERE r.userSub = :user
+                                """, Object[].class)
                 .setParameter("user", userSub)
                 .getSingleResult();
+        return new Totals((BigDecimal) r[0], (BigDecimal) r[1]);
     }
 
-    public BigDecimal getLastSnapshotAmount(String userSub, Long categoryId, String note) {
-        return em.createQuery("""
-                        SELECT t.amount FROM tx t
-                        WHERE t.userSub = :userSub
-                          AND t.category.id = :categoryId
-                          AND t.note = :note
-                        ORDER BY t.txTime DESC
-                        """, BigDecimal.class)
-                .setParameter("userSub", userSub)
-                .setParameter("categoryId", categoryId)
-                .setParameter("note", note)
-                .setMaxResults(1)
-                .getResultStream()
-                .findFirst()
-                .orElse(null);
-    }
-
-    public boolean snapshotExists(String userSub, Long categoryId, String note) {
-        return em.createQuery("""
-                        SELECT COUNT(t) FROM tx t
-                        WHERE t.userSub = :userSub AND t.category.id = :categoryId AND t.note = :note
-                        """, Long.class)
-                .setParameter("userSub", userSub)
-                .setParameter("categoryId", categoryId)
-                .setParameter("note", note)
-                .getSingleResult() > 0;
-    }
-
-    public void insertInvestmentSnapshot(String userSub, BigDecimal amount, Long categoryId, LocalDateTime timestamp, String note) {
+    @SuppressWarnings("unchecked")
+    public List<GeocodePending> findGeocodePending(LocalDateTime now, int maxAttempts, int limit) {
+        List<Object[]> rows = em.createNativeQuery("""
+                        SELECT TOP (:limit) id, user_sub, latitude, longitude, geo_attempts
+                        FROM tx
+                        WHERE location_name IS NULL
+                          AND latitude IS NOT NULL
+                          AND longitude IS NOT NULL
+                          AND geo_attempts < :maxAttempts
+                          AND (geo_next_attempt IS NULL OR geo_next_attempt <= :now)
+                        ORDER BY geo_next_attempt
+                        """)
+                .setParameter("limit", limit)
+                .setParameter("maxAttempts", maxAttempts)
+                .setParameter("now", now)
+                .getResultList();
+        return rows.stream()
+                .map(r -> new GeocodePending(((Number) r[0]).longValue(), (String) r[1],
+                        (BigDecimal) r[2], (BigDecimal) r[3], ((Number) r[4]).intValue()))
+                .toList();
+    }
+
+    /**
+     * Writes the resolved name unless the row's coordinates changed since it was picked up.
+     */
+    public void resolveGeocode(GeocodePending p, String locationName) {
         em.createNativeQuery("""
-                        INSERT INTO tx (user_sub, type, amount, category_id, tx_time, note)
-                        VALUES (:userSub, 'I', :amount, :categoryId, :timestamp, :note)
+                        UPDATE tx SET location_name = :name, geo_next_attempt = NULL
+                        WHERE id = :id AND latitude = :lat AND longitude = :lon AND location_name IS NULL
                         """)
-                .setParameter("userSub", userSub)
-                .setParameter("amount", amount)
-                .setParameter("categoryId", categoryId)
-                .setParameter("timestamp", timestamp)
-                .setParameter("note", note)
+                .setParameter("name", locationName)
+                .setParameter("id", p.id())
+                .setParameter("lat", p.latitude())
+                .setParameter("lon", p.longitude())
                 .executeUpdate();
     }
 
-    public void updateInvestmentSnapshot(String userSub, Long categoryId, String note, BigDecimal newAmount, LocalDateTime newTime) {
-        em.createQuery("""
-                        UPDATE tx t SET t.amount = :newAmount, t.txTime = :newTime
-                        WHERE t.userSub = :userSub AND t.category.id = :categoryId AND t.note = :note
-                        """)
-                .setParameter("newAmount", newAmount)
-                .setParameter("newTime", newTime)
-                .setParameter("userSub", userSub)
-                .setParameter("categoryId", categoryId)
-                .setParameter("note", note)
+    public void deferGeocode(Long id, int attempts, LocalDateTime nextAttempt) {
+        em.createNativeQuery("UPDATE tx SET geo_attempts = :attempts, geo_next_attempt = :next WHERE id = :id")
+                .setParameter("attempts", attempts)
+                .setParameter("next", nextAttempt)
+                .setParameter("id", id)
+                .executeUpdate();
+    }
+
+    public void requeueGeocode(Long id) {
+        em.createNativeQuery("UPDATE tx SET geo_attempts = 0, geo_next_attempt = NULL WHERE id = :id")
+                .setParameter("id", id)
                 .executeUpdate();
     }
 
+    /**
+     * Located rows still waiting for a name; {@code userSub} null counts every user.
+     */
+    public GeocodeBacklog countGeocodeBacklog(String userSub, int maxAttempts) {
+        var q = em.createNativeQuery("""
+                        SELECT COALESCE(SUM(CASE WHEN geo_attempts < :maxAttempts THEN 1 ELSE 0 END), 0),
+                               COALESCE(SUM(CASE WHEN geo_attempts >= :maxAttempts THEN 1 ELSE 0 END), 0)
+                        FROM tx
+                        WHERE location_name IS NULL
+                          AND latitude IS NOT NULL
+                          AND longitude IS NOT NULL
+                        """ + (userSub != null ? "  AND user_sub = :userSub" : ""))
+                .setParameter("maxAttempts", maxAttempts);
+        if (userSub != null) q.setParameter("userSub", userSub);
+        Object[] r = (Object[]) q.getSingleResult();
+        return new GeocodeBacklog(((Number) r[0]).longValue(), ((Number) r[1]).longValue());
+    }
+
     public List<Transaction> findRecentExpenses(String userSub, LocalDate sinceDate) {
         return find("userSub = ?1 and type = 'E' and txTime >= ?2",
                 Sort.by("txTime").descending(),
@@ -330,41 +654,50 @@ public class TransactionRepository implements PanacheRepository<Transaction> {
                 .list();
     }
 
-    /*  TransactionRepository.java  */
-    public BigDecimal sumExpensesForCategorySince(String userSub,
-                                                  Long   categoryId,
-                                                  LocalDate fromDate) {
+    /**
+     * Read-only row for list and detail endpoints. Selected by constructor expression, so it is never attached
+     * to the persistence context; component names double as the entity attribute paths.
+     */
+    public record TxView(Long id, String type, BigDecimal amount, Long categoryId, OffsetDateTime txTime,
+                         String locationName, String note) {
+    }
 
-        /* convert  YYYY-MM-DD  →  2025-08-01T00:00Z */
-        var utcMidnight = fromDate
-                .atStartOfDay()          // LocalDateTime 2025-08-01T00:00
-                .atOffset(ZoneOffset.UTC);   // OffsetDateTime 2025-08-01T00:00Z
+    public record DailySum(LocalDate day, BigDecimal total) {
+    }
 
-        return find("userSub = ?1 and categoryId = ?2 and type = 'E' and txTime >= ?3",
-                userSub, categoryId, utcMidnight)
-                .stream()
-                .map(Transaction::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    public record MonthlySum(int month, BigDecimal total) {
     }
 
+    public record Totals(BigDecimal income, BigDecimal expenses) {
+        public BigDecimal balance() {
+            return income.subtract(expenses);
+        }
+    }
 
-    public BigDecimal sumByCategory(String userSub, String categoryName) {
-        return em.createQuery("""
-                        SELECT COALESCE(SUM(t.amount), 0)
-                        FROM Transaction t
-                        JOIN Category c ON t.categoryId = c.id
-                        WHERE t.userSub = :userSub
-                          AND t.type = 'I'
-                          AND c.name = :categoryName
-                        """, BigDecimal.class)
-                .setParameter("userSub", userSub)
-                .setParameter("categoryName", categoryName)
-                .getSingleResult();
+    public record ImportRow(String fingerprint, Transaction tx) {
     }
 
-    public record DailySum(LocalDate day, BigDecimal total) {
+    public record ImportMonthTotal(LocalDate month, String type, BigDecimal amount, int count) {
     }
 
-    public record MonthlySum(int month, BigDecimal total) {
+    public record ImportMerge(int inserted, int skipped, List<ImportMonthTotal> months) {
+    }
+
+    public record GeocodePending(Long id, String userSub, BigDecimal latitude, BigDecimal longitude, int attempts) {
+    }
+
+    public record GeocodeBacklog(long pending, long exhausted) {
+    }
+
+    public record CategorySum(String category, BigDecimal amount) {
+    }
+
+    public record LocationSum(BigDecimal latitude, BigDecimal longitude, String label, BigDecimal amount) {
+    }
+
+    public record DashboardTotals(Totals totals, List<CategorySum> categories) {
+    }
+
+    public record DashboardActivity(List<TxView> recent, List<DailySum> daily, List<LocationSum> locations) {
     }
 }
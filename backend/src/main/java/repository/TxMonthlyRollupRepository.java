@@ -0,0 +1,112 @@
+package repository;
+
+import io.quarkus.hibernate.orm.panache.PanacheRepositoryBase;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+import model.entity.Transaction;
+import model.entity.TxMonthlyRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ApplicationScoped
+@Measured("repository.query")
+public class TxMonthlyRollupRepository implements PanacheRepositoryBase<TxMonthlyRollup, TxMonthlyRollup.PK> {
+
+    @Inject
+    EntityManager em;
+
+    public void add(Transaction t) {
+        apply(Contribution.of(t), 1);
+    }
+
+    public void remove(Contribution c) {
+        apply(c, -1);
+    }
+
+    public void addAll(Collection<Transaction> txs) {
+        Map<Cell, BigDecimal> sums = new LinkedHashMap<>();
+        Map<Cell, Integer> counts = new LinkedHashMap<>();
+        for (Transaction t : txs) {
+            Contribution c = Contribution.of(t);
+            Cell cell = new Cell(c.userSub(), c.month(), c.categoryId(), c.type());
+            sums.merge(cell, c.amount(), BigDecimal::add);
+            counts.merge(cell, 1, Integer::sum);
+        }
+        sums.forEach((cell, sum) -> applyDelta(
+                cell.userSub(), cell.month(), cell.categoryId(), cell.type(), sum, counts.get(cell)));
+    }
+
+    private void apply(Contribution c, int sign) {
+        BigDecimal amount = sign < 0 ? c.amount().negate() : c.amount();
+        applyDelta(c.userSub(), c.month(), c.categoryId(), c.type(), amount, sign);
+    }
+
+    public void applyDelta(String userSub, LocalDate month, Long categoryId, String type,
+                           BigDecimal amountDelta, int countDelta) {
+        em.createNativeQuery("""
+                        MERGE INTO tx_monthly_rollup WITH (HOLDLOCK) AS target
+                        USING (VALUES (?, ?, ?, ?, ?, ?))
+                            AS source(user_sub, month_start, category_id, type, amount, cnt)
+                          ON target.user_sub = source.user_sub
+                         AND target.month_start = source.month_start
+                         AND target.category_id = source.category_id
+                         AND target.type = source.type
+                        WHEN MATCHED AND target.tx_count + source.cnt <= 0 THEN
+                          DELETE
+                        WHEN MATCHED THEN
+                          UPDATE SET target.total_amount = target.total_amount + source.amount,
+                                     target.tx_count     = target.tx_count + source.cnt
+                        WHEN NOT MATCHED AND source.cnt > 0 THEN
+                          INSERT (user_sub, month_start, category_id, type, total_amount, tx_count)
+                          VALUES (source.user_sub, source.month_start, source.category_id,
+                                  source.type, source.amount, source.cnt);
+                        """)
+                .setParameter(1, userSub)
+                .setParameter(2, month)
+                .setParameter(3, categoryId)
+                .setParameter(4, type)
+                .setParameter(5, amountDelta)
+                .setParameter(6, countDelta)
+                .executeUpdate();
+    }
+
+    public void rebuildCategory(String userSub, Long categoryId) {
+        em.createNativeQuery("DELETE FROM tx_monthly_rollup WHERE user_sub = ? AND category_id = ?")
+                .setParameter(1, userSub)
+                .setParameter(2, categoryId)
+                .executeUpdate();
+        em.createNativeQuery("""
+                        INSERT INTO tx_monthly_rollup (user_sub, month_start, category_id, type, total_amount, tx_count)
+                        SELECT user_sub, DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), category_id, type,
+                               SUM(amount), COUNT(*)
+                        FROM tx
+                        WHERE user_sub = ? AND category_id = ?
+                        GROUP BY user_sub, DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), category_id, type
+                        """)
+                .setParameter(1, userSub)
+                .setParameter(2, categoryId)
+                .executeUpdate();
+    }
+
+    public static LocalDate monthOf(OffsetDateTime txTime) {
+        return txTime.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate().withDayOfMonth(1);
+    }
+
+    private record Cell(String userSub, LocalDate month, Long categoryId, String type) {
+    }
+
+    public record Contribution(String userSub, LocalDate month, Long categoryId, String type, BigDecimal amount) {
+        public static Contribution of(Transaction t) {
+            OffsetDateTime when = t.getTxTime() != null ? t.getTxTime() : OffsetDateTime.now(ZoneOffset.UTC);
+            return new Contribution(t.getUserSub(), monthOf(when), t.getCategoryId(), t.getType(), t.getAmount());
+        }
+    }
+}
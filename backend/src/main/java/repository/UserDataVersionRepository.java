@@ -0,0 +1,37 @@
+package repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import metrics.Measured;
+
+import java.util.List;
+
+@ApplicationScoped
+@Measured("repository.query")
+public class UserDataVersionRepository {
+
+    @Inject
+    EntityManager em;
+
+    public long current(String userSub) {
+        List<?> rows = em.createNativeQuery("SELECT version FROM user_data_version WHERE user_sub = :user")
+                .setParameter("user", userSub)
+                .getResultList();
+        return rows.isEmpty() ? 0L : ((Number) rows.get(0)).longValue();
+    }
+
+    public void bump(String userSub) {
+        em.createNativeQuery("""
+                        MERGE INTO user_data_version WITH (HOLDLOCK) AS target
+                        USING (VALUES (:user)) AS source(user_sub)
+                          ON target.user_sub = source.user_sub
+                        WHEN MATCHED THEN
+                          UPDATE SET version = target.version + 1, updated_at = SYSUTCDATETIME()
+                        WHEN NOT MATCHED THEN
+                          INSERT (user_sub, version) VALUES (source.user_sub, 1);
+                        """)
+                .setParameter("user", userSub)
+                .executeUpdate();
+    }
+}
@@ -6,8 +6,10 @@ import jakarta.persistence.EntityManager;
 import jakarta.persistence.NoResultException;
 
 import java.util.Optional;
+import metrics.Measured;
 
 @ApplicationScoped
+@Measured("repository.query")
 public class UserPushTokenRepository {
 
     @Inject
@@ -16,6 +16,7 @@ import jakarta.ws.rs.core.Response;
 import model.external.BinanceCredentialDTO;
 import model.external.BinanceTokenDTO;
 import model.external.FullPortfolioDTO;
+import model.external.PortfolioHistoryDTO;
 import model.response.ServiceResponseDTO;
 import security.SecurityUtils;
 import service.BinanceService;
@@ -67,6 +68,24 @@ public class BinanceResource {
                 .build();
     }
 
+    @GET
+    @Path("/portfolio/history")
+    public Response getPortfolioHistory(
+            @QueryParam("from") String from,
+            @QueryParam("to") String to,
+            @QueryParam("points") @DefaultValue("90") int points
+    ) {
+        ServiceResponseDTO<PortfolioHistoryDTO> result = service.getPortfolioHistory(
+                securityUtils.getCurrentUser(),
+                from,
+                to,
+                points
+        );
+        return Response.status(result.getStatusCode())
+                .entity(result)
+                .build();
+    }
+
     @DELETE
     public Response deleteCredentials() {
         ServiceResponseDTO<BinanceTokenDTO> result = service.deleteCredentials(
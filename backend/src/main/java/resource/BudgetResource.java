@@ -27,6 +27,7 @@ import java.util.List;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Authenticated
+@UserDataVersioned
 public class BudgetResource {
 
     @Inject
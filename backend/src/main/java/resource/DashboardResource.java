@@ -3,12 +3,15 @@ package resource;
 import io.quarkus.security.Authenticated;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import model.response.ServiceResponseDTO;
+import model.tracking.DashboardBundleDTO;
 import model.tracking.DashboardSummaryDTO;
 import security.SecurityUtils;
 import service.DashboardService;
@@ -17,6 +20,7 @@ import service.DashboardService;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Authenticated
+@UserDataVersioned
 public class DashboardResource {
 
     @Inject
@@ -32,4 +36,17 @@ public class DashboardResource {
                 dashService.summary(securityUtils.getCurrentUser());
         return Response.status(resp.getStatusCode()).entity(resp).build();
     }
+
+    @GET
+    @Path("/bundle")
+    public Response bundle(
+            @QueryParam("recent") @DefaultValue("5") int recent,
+            @QueryParam("days") @DefaultValue("7") int days,
+            @QueryParam("month") String month,
+            @QueryParam("locations") @DefaultValue("3") int locations
+    ) {
+        ServiceResponseDTO<DashboardBundleDTO> resp =
+                dashService.bundle(securityUtils.getCurrentUser(), recent, days, month, locations);
+        return Response.status(resp.getStatusCode()).entity(resp).build();
+    }
 }
@@ -30,6 +30,7 @@ import static jakarta.ws.rs.core.Response.Status.BAD_REQUEST;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Authenticated
+@UserDataVersioned
 public class PlannedTxResource {
 
     @Inject
@@ -9,17 +9,16 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
-import mapper.TransactionMapper;
-import model.home.TxResponseDTO;
+import model.external.RevolutImportSummaryDTO;
+import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
 import org.jboss.resteasy.reactive.RestForm;
 import org.jboss.resteasy.reactive.multipart.FileUpload;
 import security.SecurityUtils;
 import service.RevolutImportService;
-import service.TransactionService;
 
 import java.io.InputStream;
-import java.util.List;
+import java.nio.file.Files;
 
 @Path("/api/revolut")
 @Produces(MediaType.APPLICATION_JSON)
@@ -30,26 +29,16 @@ public class RevolutResource {
     @Inject
     RevolutImportService importSvc;
     @Inject
-    TransactionService txService;
-    @Inject
     SecurityUtils securityUtils;
-    @Inject
-    TransactionMapper transactionMapper;
 
     @POST
     @Path("/import")
     @Blocking
     public Response importPdf(@RestForm("file") FileUpload file) {
-        try (InputStream in = file.uploadedFile().toFile().toPath().toUri().toURL().openStream()) {
-            var resp = importSvc.importMonthlyPdf(securityUtils.getCurrentUser(), in);
-
-            List<TxResponseDTO> dtos = ((List<?>) resp.getData()).stream()
-                    .map(o -> (model.entity.Transaction) o)
-                    .map(transactionMapper::entityToResponse)
-                    .toList();
-
-            var out = ServiceResponseDirector.successCreated(dtos, resp.getMessage());
-            return Response.status(out.getStatusCode()).entity(out).build();
+        try (InputStream in = Files.newInputStream(file.uploadedFile())) {
+            ServiceResponseDTO<RevolutImportSummaryDTO> resp =
+                    importSvc.importMonthlyPdf(securityUtils.getCurrentUser(), in);
+            return Response.status(resp.getStatusCode()).entity(resp).build();
         } catch (Exception e) {
             var err = ServiceResponseDirector.errorBadRequest("Upload failed");
             return Response.status(err.getStatusCode()).entity(err).build();
@@ -22,6 +22,7 @@ import service.SavingsGoalService;
 @Authenticated
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
+@UserDataVersioned
 public class SavingsGoalResource {
     @Inject
     SavingsGoalService svc;
@@ -21,6 +21,7 @@ import model.home.QuickTxRequestDTO;
 import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
 import model.tracking.CategoryBreakdownDTO;
+import model.tracking.GeocodeBacklogDTO;
 import model.tracking.LocationDTO;
 import model.tracking.SpendingVsIncomeDTO;
 import security.SecurityUtils;
@@ -35,6 +36,7 @@ import java.util.Map;
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @Authenticated
+@UserDataVersioned
 public class TransactionResource {
 
     @Inject
@@ -61,7 +63,9 @@ public class TransactionResource {
             @QueryParam("dueFrom") String dueFromStr,
             @QueryParam("dueTo") String dueToStr,
             @QueryParam("note") String note,
-            @QueryParam("category") String categoryName
+            @QueryParam("category") String categoryName,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("withTotal") @DefaultValue("true") boolean withTotal
     ) {
         ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>> resp =
                 txService.page(
@@ -70,7 +74,9 @@ public class TransactionResource {
                         type, minAmount, maxAmount,
                         dueFromStr, dueToStr,
                         note,
-                        categoryName
+                        categoryName,
+                        cursor,
+                        withTotal
                 );
         return Response
                 .status(resp.getStatusCode())
@@ -146,6 +152,14 @@ public class TransactionResource {
         return Response.status(resp.getStatusCode()).entity(resp).build();
     }
 
+    @GET
+    @Path("/geocode-backlog")
+    public Response geocodeBacklog() {
+        ServiceResponseDTO<GeocodeBacklogDTO> resp =
+                txService.geocodeBacklog(securityUtils.getCurrentUser());
+        return Response.status(resp.getStatusCode()).entity(resp).build();
+    }
+
     @GET
     @Path("/{id}")
     public Response getById(@PathParam("id") Long id) {
@@ -0,0 +1,79 @@
+package resource;
+
+import jakarta.inject.Inject;
+import jakarta.ws.rs.HttpMethod;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.Provider;
+import security.SecurityUtils;
+import service.DataVersionService;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * Conditional GET for {@link UserDataVersioned} endpoints. The ETag is derived from the user's data version,
+ * the UTC date (several endpoints are relative to "today") and the request URI, so a matching
+ * {@code If-None-Match} is answered with 304 before the resource method or any query runs.
+ */
+@Provider
+@UserDataVersioned
+public class UserDataETagFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    private static final String TAG_PROPERTY = UserDataETagFilter.class.getName() + ".tag";
+
+    @Inject
+    DataVersionService versions;
+
+    @Inject
+    SecurityUtils securityUtils;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (!HttpMethod.GET.equals(request.getMethod())) return;
+
+        String userSub = securityUtils.getCurrentUser();
+        EntityTag tag = tagFor(userSub, versions.current(userSub), request.getUriInfo().getRequestUri().toString());
+        request.setProperty(TAG_PROPERTY, tag);
+
+        Response.ResponseBuilder notModified = request.getRequest().evaluatePreconditions(tag);
+        if (notModified != null) {
+            request.abortWith(notModified.tag(tag).cacheControl(revalidate()).build());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Object tag = request.getProperty(TAG_PROPERTY);
+        if (tag == null || response.getStatus() != Response.Status.OK.getStatusCode()) return;
+        response.getHeaders().putSingle(HttpHeaders.ETAG, tag);
+        response.getHeaders().putSingle(HttpHeaders.CACHE_CONTROL, revalidate());
+    }
+
+    static EntityTag tagFor(String userSub, long version, String uri) {
+        String raw = userSub + '|' + version + '|' + LocalDate.now(ZoneOffset.UTC) + '|' + uri;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return new EntityTag(Base64.getUrlEncoder().withoutPadding().encodeToString(hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CacheControl revalidate() {
+        CacheControl cc = new CacheControl();
+        cc.setPrivate(true);
+        cc.setNoCache(true);
+        return cc;
+    }
+}
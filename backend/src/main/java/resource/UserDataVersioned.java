@@ -0,0 +1,18 @@
+package resource;
+
+import jakarta.ws.rs.NameBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks GET endpoints whose response depends only on the caller's own data (and the current date), so they
+ * can be answered from the per-user data version by {@link UserDataETagFilter}.
+ */
+@NameBinding
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+public @interface UserDataVersioned {
+}
@@ -1,22 +1,50 @@
 package scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import model.entity.BinanceToken;
+import model.external.CoinPortfolioEntryDTO;
+import model.external.FullPortfolioDTO;
+import model.helper.Partition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import repository.BinanceTokenRepository;
-import repository.CategoryRepository;
-import repository.TransactionRepository;
+import repository.PortfolioSnapshotRepository;
+import repository.PortfolioSnapshotRepository.Valuation;
 import service.BinanceService;
+import service.MarketDataService;
 
 import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
+/**
+ * Appends each Binance user's portfolio value, in total and per asset, to {@code portfolio_snapshot} once a
+ * day.
+ */
 @ApplicationScoped
 public class BinancePortfolioScheduler {
 
-    private static final String SNAPSHOT_NOTE = "Binance Portfolio Snapshot";
-    private static final BigDecimal VALUE_CHANGE_THRESHOLD = new BigDecimal("1.00");
+    private static final Logger LOGGER = Logger.getLogger(BinancePortfolioScheduler.class.getName());
+
+    static final String JOB = "binance-snapshot";
+
+    // Binance request weights: GET /account = 20, GET /myTrades = 20 x 10 coins; the ticker comes from MarketDataService
+    static final int USER_WEIGHT = 20 + 10 * 20;
 
     @Inject
     BinanceTokenRepository tokenRepo;
@@ -25,32 +53,106 @@ public class BinancePortfolioScheduler {
     BinanceService binanceService;
 
     @Inject
-    CategoryRepository categoryRepo;
+    PortfolioSnapshotRepository snapshots;
+
+    @Inject
+    MarketDataService marketData;
+
+    @Inject
+    MeterRegistry registry;
 
     @Inject
-    TransactionRepository txRepo;
+    ClusterJobs jobs;
 
-    @Scheduled(cron = "0 59 23 * * ?")
+    @ConfigProperty(name = "binance.snapshot.concurrency", defaultValue = "8")
+    int concurrency;
+
+    @ConfigProperty(name = "binance.snapshot.weight-per-minute", defaultValue = "3000")
+    int weightPerMinute;
+
+    @Scheduled(cron = "0 59 23 * * ?", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
     public void snapshotBinancePortfolio() {
-        List<String> users = tokenRepo.findAllUsersWithBinanceTokens();
+        RequestWeightBudget budget = new RequestWeightBudget(weightPerMinute, Duration.ofMinutes(1));
+        jobs.runPartitioned(JOB, partition -> snapshot(partition, budget));
+    }
 
-        Long categoryId = categoryRepo.findIdByName("Investments");
-        for (String userSub : users) {
-            var response = binanceService.getPortfolio(userSub, "EUR");
+    void snapshot(Partition partition, RequestWeightBudget budget) {
+        Timer.Sample run = Timer.start(registry);
+        try {
+            List<BinanceToken> tokens = tokenRepo.findInPartition(partition);
+            if (tokens.isEmpty()) return;
 
-            if (response.isSuccess() && response.getData() != null) {
-                BigDecimal currentValue = response.getData().getTotalEurValue();
-                BigDecimal lastValue = txRepo.getLastSnapshotAmount(userSub, categoryId, SNAPSHOT_NOTE);
+            MarketDataService.Snapshot market;
+            try {
+                market = marketData.current();
+            } catch (Exception e) {
+                registry.counter("binance.snapshot.failures", "stage", "ticker").increment();
+                LOGGER.warning("Skipping portfolio snapshots, market data unavailable: " + e.getMessage());
+                return;
+            }
 
-                boolean hasChanged = lastValue == null
-                        || currentValue.subtract(lastValue).abs().compareTo(VALUE_CHANGE_THRESHOLD) > 0;
+            List<Valuation> valuations = fetchValuations(tokens, market, budget);
+            if (!valuations.isEmpty()) {
+                writeSnapshots(LocalDate.now(), valuations);
+            }
+        } finally {
+            run.stop(registry.timer("binance.snapshot.run"));
+        }
+    }
+
+    private List<Valuation> fetchValuations(List<BinanceToken> tokens, MarketDataService.Snapshot market,
+                                            RequestWeightBudget budget) {
+        Map<String, Valuation> values = new ConcurrentHashMap<>();
+        AtomicInteger failures = new AtomicInteger();
+        Timer perUser = registry.timer("binance.snapshot.user");
 
-                if (!txRepo.snapshotExists(userSub, categoryId, SNAPSHOT_NOTE)) {
-                    txRepo.insertInvestmentSnapshot(userSub, currentValue, categoryId, LocalDateTime.now(), SNAPSHOT_NOTE);
-                } else if (hasChanged) {
-                    txRepo.updateInvestmentSnapshot(userSub, categoryId, SNAPSHOT_NOTE, currentValue, LocalDateTime.now());
+        List<Callable<Void>> tasks = new ArrayList<>(tokens.size());
+        for (BinanceToken token : tokens) {
+            tasks.add(() -> {
+                budget.acquire(USER_WEIGHT);
+                Timer.Sample sample = Timer.start(registry);
+                try {
+                    var response = binanceService.buildPortfolio(token, "EUR", market);
+                    if (response.isSuccess() && response.getData() != null) {
+                        values.put(token.getUserSub(), valuation(token.getUserSub(), response.getData()));
+                    } else {
+                        failures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                    LOGGER.warning("Portfolio snapshot failed for " + token.getUserSub() + ": " + e.getMessage());
+                } finally {
+                    sample.stop(perUser);
                 }
-            }
+                return null;
+            });
         }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, tokens.size())));
+        try {
+            pool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        registry.counter("binance.snapshot.users").increment(tokens.size());
+        registry.counter("binance.snapshot.failures", "stage", "user").increment(failures.get());
+        return List.copyOf(values.values());
+    }
+
+    private static Valuation valuation(String userSub, FullPortfolioDTO portfolio) {
+        Map<String, BigDecimal> assets = new LinkedHashMap<>();
+        for (CoinPortfolioEntryDTO coin : portfolio.getMyCoins()) {
+            BigDecimal value = coin.getEurValue().setScale(2, RoundingMode.HALF_UP);
+            if (value.signum() > 0) assets.put(coin.getSymbol(), value);
+        }
+        return new Valuation(userSub, portfolio.getTotalEurValue().setScale(2, RoundingMode.HALF_UP), assets);
+    }
+
+    @Transactional
+    void writeSnapshots(LocalDate day, List<Valuation> valuations) {
+        snapshots.saveAll(day, valuations);
     }
 }
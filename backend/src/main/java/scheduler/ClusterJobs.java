@@ -0,0 +1,149 @@
+package scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import model.helper.Partition;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import repository.SchedulerLeaseRepository;
+import repository.SchedulerLeaseRepository.Grant;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Runs scheduled jobs once per trigger across all replicas. Every pod fires the trigger, but only the one that
+ * takes the job's lease in {@code scheduler_lease} does the work. A job with {@code scheduler.<job>.partitions}
+ * above 1 has one lease per partition of the user set, and each pod works through every partition it can take,
+ * so a large run is shared between pods. A lease lasts {@code scheduler.<job>.lease.at-most} if its holder
+ * dies, and is kept at least {@code scheduler.<job>.lease.at-least} after it was taken so late triggers skip.
+ */
+@ApplicationScoped
+public class ClusterJobs {
+
+    private static final Logger LOGGER = Logger.getLogger(ClusterJobs.class.getName());
+
+    @Inject
+    SchedulerLeaseRepository leases;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Config config;
+
+    @ConfigProperty(name = "scheduler.lease.owner")
+    Optional<String> configuredOwner;
+
+    @ConfigProperty(name = "scheduler.lease.at-most", defaultValue = "PT30M")
+    Duration defaultAtMost;
+
+    @ConfigProperty(name = "scheduler.lease.at-least", defaultValue = "PT5M")
+    Duration defaultAtLeast;
+
+    private final AtomicInteger held = new AtomicInteger();
+    private String owner;
+
+    @PostConstruct
+    void init() {
+        owner = configuredOwner.orElseGet(() -> ManagementFactory.getRuntimeMXBean().getName());
+        registry.gauge("scheduler.lease.held", held);
+    }
+
+    public String owner() {
+        return owner;
+    }
+
+    /**
+     * Runs {@code task} if this pod gets the job's lease. Returns whether it ran.
+     */
+    public boolean runOnce(String job, Runnable task) {
+        return runLeased(job, Partition.ALL, p -> task.run());
+    }
+
+    /**
+     * Runs {@code task} for every partition of the job this pod gets the lease for, starting at a pod-specific
+     * offset so pods triggered together mostly pick different partitions. A failing partition does not stop
+     * the others; the first failure is rethrown at the end. Returns the number of partitions run.
+     */
+    public int runPartitioned(String job, Consumer<Partition> task) {
+        int count = config.getOptionalValue("scheduler." + job + ".partitions", Integer.class).orElse(1);
+        int start = Math.floorMod(owner.hashCode(), count);
+        int ran = 0;
+        RuntimeException failure = null;
+        for (int i = 0; i < count; i++) {
+            try {
+                if (runLeased(job, new Partition((start + i) % count, count), task)) ran++;
+            } catch (RuntimeException e) {
+                ran++;
+                if (failure == null) failure = e;
+                else failure.addSuppressed(e);
+            }
+        }
+        if (failure != null) throw failure;
+        return ran;
+    }
+
+    private boolean runLeased(String job, Partition partition, Consumer<Partition> task) {
+        String lease = partition.count() == 1 ? job : job + "#" + partition.index() + "/" + partition.count();
+        Optional<Grant> grant;
+        try {
+            grant = QuarkusTransaction.requiringNew().call(() -> leases.tryAcquire(lease, owner, atMost(job)));
+        } catch (RuntimeException e) {
+            registry.counter("scheduler.lease.errors", "job", job).increment();
+            LOGGER.warning("Could not acquire lease " + lease + ", skipping: " + e.getMessage());
+            return false;
+        }
+        if (grant.isEmpty()) {
+            registry.counter("scheduler.lease.busy", "job", job).increment();
+            LOGGER.fine("Lease " + lease + " is held by another pod");
+            return false;
+        }
+
+        registry.counter("scheduler.lease.acquired", "job", job).increment();
+        if (grant.get().abandoned()) {
+            registry.counter("scheduler.lease.expired", "job", job).increment();
+            LOGGER.warning("Lease " + lease + " of " + grant.get().previousOwner()
+                    + " expired without being released, taking over");
+        }
+
+        held.incrementAndGet();
+        try {
+            task.accept(partition);
+        } finally {
+            held.decrementAndGet();
+            release(job, lease);
+        }
+        return true;
+    }
+
+    private void release(String job, String lease) {
+        try {
+            boolean released = QuarkusTransaction.requiringNew()
+                    .call(() -> leases.release(lease, owner, atLeast(job)));
+            if (!released) {
+                registry.counter("scheduler.lease.lost", "job", job).increment();
+                LOGGER.warning("Lease " + lease + " expired while the job was running; raise "
+                        + "scheduler." + job + ".lease.at-most");
+            }
+        } catch (RuntimeException e) {
+            registry.counter("scheduler.lease.errors", "job", job).increment();
+            LOGGER.warning("Could not release lease " + lease + ", it expires on its own: " + e.getMessage());
+        }
+    }
+
+    private Duration atMost(String job) {
+        return config.getOptionalValue("scheduler." + job + ".lease.at-most", Duration.class).orElse(defaultAtMost);
+    }
+
+    private Duration atLeast(String job) {
+        return config.getOptionalValue("scheduler." + job + ".lease.at-least", Duration.class).orElse(defaultAtLeast);
+    }
+}
@@ -0,0 +1,148 @@
+package scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import model.helper.UserDataChanged;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import repository.TransactionRepository;
+import repository.TransactionRepository.GeocodePending;
+import service.LocationService;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Fills in {@code tx.location_name} after the fact. Transactions are saved with bare coordinates; this worker
+ * picks up unnamed rows in batches, paces geocoder calls to the API quota and retries failures with
+ * exponential backoff until {@code geocode.backfill.max-attempts} is reached. Only the pod holding the job's
+ * lease (see {@link ClusterJobs}) polls, so the pacing is the quota of the whole cluster and no row is
+ * geocoded by two pods.
+ */
+@ApplicationScoped
+public class GeocodeBackfillScheduler {
+
+    private static final Logger LOGGER = Logger.getLogger(GeocodeBackfillScheduler.class.getName());
+
+    static final String JOB = "geocode-backfill";
+
+    @Inject
+    TransactionRepository txRepo;
+
+    @Inject
+    LocationService locationService;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    Event<UserDataChanged> dataChanged;
+
+    @Inject
+    ClusterJobs jobs;
+
+    @ConfigProperty(name = "geocode.backfill.batch-size", defaultValue = "50")
+    int batchSize;
+
+    @ConfigProperty(name = "geocode.backfill.requests-per-second", defaultValue = "1")
+    int requestsPerSecond;
+
+    @ConfigProperty(name = "geocode.backfill.max-attempts", defaultValue = "6")
+    int maxAttempts;
+
+    @ConfigProperty(name = "geocode.backfill.initial-backoff", defaultValue = "PT1M")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "geocode.backfill.max-backoff", defaultValue = "PT6H")
+    Duration maxBackoff;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private RequestWeightBudget quota;
+
+    @PostConstruct
+    void init() {
+        quota = new RequestWeightBudget(requestsPerSecond, Duration.ofSeconds(1));
+        registry.gauge("geocode.backlog", backlog);
+    }
+
+    @Scheduled(every = "${geocode.backfill.interval:15s}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void backfillLocationNames() {
+        jobs.runOnce(JOB, () -> {
+            Timer.Sample run = Timer.start(registry);
+            try {
+                backfill();
+            } finally {
+                run.stop(registry.timer("geocode.backfill.run"));
+            }
+        });
+    }
+
+    private void backfill() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        List<GeocodePending> batch = txRepo.findGeocodePending(now, maxAttempts, batchSize);
+
+        Map<GeocodePending, String> resolved = new LinkedHashMap<>();
+        List<GeocodePending> failed = new ArrayList<>();
+        for (GeocodePending p : batch) {
+            double lat = p.latitude().doubleValue();
+            double lon = p.longitude().doubleValue();
+            try {
+                // cells already in memory don't spend geocoder quota
+                if (locationService.cachedName(lat, lon).isEmpty()) {
+                    quota.acquire(1);
+                }
+                resolved.put(p, locationService.getLocationName(lat, lon));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                failed.add(p);
+                LOGGER.fine("Geocode failed for tx " + p.id() + ": " + e.getMessage());
+            }
+        }
+
+        if (!resolved.isEmpty() || !failed.isEmpty()) {
+            record(resolved, failed, now);
+        }
+        backlog.set(txRepo.countGeocodeBacklog(null, maxAttempts).pending());
+    }
+
+    @Transactional
+    void record(Map<GeocodePending, String> resolved, List<GeocodePending> failed, LocalDateTime now) {
+        resolved.forEach(txRepo::resolveGeocode);
+        resolved.keySet().stream()
+                .map(GeocodePending::userSub)
+                .distinct()
+                .forEach(userSub -> dataChanged.fire(new UserDataChanged(userSub)));
+        registry.counter("geocode.backfill", "outcome", "resolved").increment(resolved.size());
+
+        for (GeocodePending p : failed) {
+            int attempts = p.attempts() + 1;
+            if (attempts >= maxAttempts) {
+                txRepo.deferGeocode(p.id(), attempts, null);
+                registry.counter("geocode.backfill", "outcome", "exhausted").increment();
+                LOGGER.warning("Giving up on location name for tx " + p.id() + " after " + attempts + " attempts");
+            } else {
+                txRepo.deferGeocode(p.id(), attempts, now.plus(backoff(attempts)));
+                registry.counter("geocode.backfill", "outcome", "failed").increment();
+            }
+        }
+    }
+
+    Duration backoff(int attempts) {
+        Duration d = initialBackoff.multipliedBy(1L << Math.max(0, Math.min(attempts - 1, 20)));
+        return d.compareTo(maxBackoff) > 0 ? maxBackoff : d;
+    }
+}
@@ -1,86 +1,103 @@
 package scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.quarkus.scheduler.Scheduled;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import model.entity.PlannedTx;
-import repository.BudgetRepository;
-import repository.CategoryRepository;
+import model.helper.Partition;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import repository.PlannedTxRepository;
+import repository.PlannedTxRepository.Upcoming;
 import repository.SavingsGoalRepository;
-import repository.TransactionRepository;
 import service.NotificationService;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
 
+/**
+ * Daily savings-goal and upcoming-payment reminders. Both are selected across all users by set-based queries
+ * and read in keyset chunks, so the number of statements grows with the number of reminders, not of users.
+ * Each partition of the user set is sent by one pod only, see {@link ClusterJobs}.
+ */
 @ApplicationScoped
 public class GoalAndReminderNotificationScheduler {
 
+    static final String JOB = "reminders";
+
     private static final BigDecimal SAVINGS_DAILY_REQUIRED_THRESHOLD = new BigDecimal("10.00");
+    private static final String SAVINGS_CATEGORY = "Savings";
 
-    @Inject
-    TransactionRepository txRepo;
     @Inject
     SavingsGoalRepository goalRepo;
     @Inject
     PlannedTxRepository plannedTxRepo;
     @Inject
-    CategoryRepository categoryRepo;
-    @Inject
     NotificationService notifier;
 
     @Inject
-    BudgetRepository budgetRepo;
-
-    @Scheduled(cron = "0 7  * * * ?")
-    public void dailyGoalAndReminderNotifications() {
-        List<String> users = budgetRepo.findAllUsersWithBudgets();
-
-        for (String userSub : users) {
-            checkSavingsGoalRisk(userSub);
-            checkUpcomingPlannedTx(userSub);
-        }
-    }
+    MeterRegistry registry;
 
-    private void checkSavingsGoalRisk(String userSub) {
-        var goal = goalRepo.findByUser(userSub);
-        if (goal == null) return;
-
-        BigDecimal currentSavings = txRepo.sumByCategory(userSub, "Savings");
-        if (currentSavings == null) currentSavings = BigDecimal.ZERO;
+    @Inject
+    ClusterJobs jobs;
 
-        long daysLeft = LocalDate.now().until(goal.getTargetDate()).getDays();
-        if (daysLeft <= 0) return;
+    @ConfigProperty(name = "reminders.chunk-size", defaultValue = "500")
+    int chunkSize;
 
-        BigDecimal requiredDaily = goal.getTargetAmt()
-                .subtract(currentSavings)
-                .divide(BigDecimal.valueOf(daysLeft), 2, RoundingMode.HALF_UP);
+    @Scheduled(cron = "${reminders.cron:0 0 7 * * ?}", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    public void dailyGoalAndReminderNotifications() {
+        jobs.runPartitioned(JOB, this::sendReminders);
+    }
 
-        if (requiredDaily.compareTo(SAVINGS_DAILY_REQUIRED_THRESHOLD) > 0) {
-            notifier.sendToExternalId(
-                    userSub,
-                    "🎯 Savings Goal at Risk",
-                    "You're falling behind on your savings goal."
-            );
+    void sendReminders(Partition partition) {
+        Timer.Sample run = Timer.start(registry);
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            notifyGoalsAtRisk(today, partition);
+            notifyUpcomingPlannedTx(today.plusDays(1), today.plusDays(3), partition);
+        } catch (RuntimeException e) {
+            registry.counter("reminders.failures").increment();
+            throw e;
+        } finally {
+            run.stop(registry.timer("reminders.run"));
         }
     }
 
-    private void checkUpcomingPlannedTx(String userSub) {
-        LocalDate from = LocalDate.now().plusDays(1);
-        LocalDate to = LocalDate.now().plusDays(3);
-
-        List<PlannedTx> upcoming = plannedTxRepo.findByUserAndDueBetween(userSub, from, to);
+    private void notifyGoalsAtRisk(LocalDate today, Partition partition) {
+        String after = "";
+        List<String> chunk;
+        do {
+            chunk = goalRepo.findUsersWithGoalAtRisk(
+                    today, SAVINGS_CATEGORY, SAVINGS_DAILY_REQUIRED_THRESHOLD, partition, after, chunkSize);
+            for (String userSub : chunk) {
+                notifier.sendToExternalId(
+                        userSub,
+                        "🎯 Savings Goal at Risk",
+                        "You're falling behind on your savings goal."
+                );
+            }
+            registry.counter("reminders.sent", "kind", "goal").increment(chunk.size());
+            if (!chunk.isEmpty()) after = chunk.get(chunk.size() - 1);
+        } while (chunk.size() == chunkSize);
+    }
 
-        for (PlannedTx tx : upcoming) {
-            String catName = categoryRepo.findCategoryNameById(tx.getCategoryId());
-            notifier.sendToExternalId(
-                    userSub,
-                    "🕒 Upcoming Planned Payment",
-                    "Your planned payment for " + catName + " (" + tx.getTitle() + ") is due on " + tx.getDueDate() + "."
-            );
-        }
+    private void notifyUpcomingPlannedTx(LocalDate from, LocalDate to, Partition partition) {
+        long after = 0;
+        List<Upcoming> chunk;
+        do {
+            chunk = plannedTxRepo.findUpcoming(from, to, partition, after, chunkSize);
+            for (Upcoming tx : chunk) {
+                notifier.sendToExternalId(
+                        tx.userSub(),
+                        "🕒 Upcoming Planned Payment",
+                        "Your planned payment for " + tx.categoryName() + " (" + tx.title() + ") is due on "
+                                + tx.dueDate() + "."
+                );
+            }
+            registry.counter("reminders.sent", "kind", "planned").increment(chunk.size());
+            if (!chunk.isEmpty()) after = chunk.get(chunk.size() - 1).id();
+        } while (chunk.size() == chunkSize);
     }
 }
@@ -1,36 +1,178 @@
 package scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import io.quarkus.scheduler.Scheduled;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
-import jakarta.transaction.Transactional;
-import model.entity.PlannedTx;
 import model.entity.Transaction;
+import model.helper.UserDataChanged;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import repository.JobCheckpointRepository;
 import repository.PlannedTxRepository;
+import repository.PlannedTxRepository.Due;
+import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
+/**
+ * Books planned transactions on their due date. Work is done in chunks of {@code planned.booking.chunk-size},
+ * each in its own transaction that claims its rows ({@code planned_tx.booked_on}) together with inserting the
+ * transactions, so a crash loses at most the chunk in flight and a rerun or a second pod never books a row
+ * twice. A chunk that fails is retried row by row and the rows that still fail are skipped and counted.
+ * The {@code job_checkpoint} row records the last due date fully processed and serialises concurrent runners.
+ * It stops the day before the earliest row that still failed, so the next run tries that row again. The job's
+ * lease (see {@link ClusterJobs}) keeps pods that trigger later from running it again. Unbooked rows due on or
+ * before the checkpoint are never picked up; each run counts them ({@code planned.booking.passed}) and warns.
+ */
 @ApplicationScoped
 public class PlannedTxScheduler {
 
+    private static final Logger LOGGER = Logger.getLogger(PlannedTxScheduler.class.getName());
+
+    static final String JOB = "planned-tx-booking";
+
     @Inject
     PlannedTxRepository plannedRepo;
 
-    @Scheduled(cron = "0 0 0 * * ?")
-    @Transactional
+    @Inject
+    TransactionRepository txRepo;
+
+    @Inject
+    TxMonthlyRollupRepository rollups;
+
+    @Inject
+    JobCheckpointRepository checkpoints;
+
+    @Inject
+    Event<UserDataChanged> dataChanged;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    ClusterJobs jobs;
+
+    @ConfigProperty(name = "planned.booking.chunk-size", defaultValue = "200")
+    int chunkSize;
+
+    private final AtomicLong passed = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        registry.gauge("planned.booking.passed", passed);
+    }
+
+    @Scheduled(cron = "0 0 0 * * ?", concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
     public void bookDuePlannedTransactions() {
-        LocalDate today = LocalDate.now();
-        List<PlannedTx> due = plannedRepo.findDue(today);
-        for (PlannedTx p : due) {
-            Transaction t = new Transaction();
-            t.setUserSub(p.getUserSub());
-            t.setType(p.getType());
-            t.setAmount(p.getAmount());
-            t.setCategoryId(p.getCategoryId());
-            t.setTxTime(OffsetDateTime.now());
-            t.persist();
+        jobs.runOnce(JOB, this::bookToday);
+    }
+
+    private void bookToday() {
+        Timer.Sample run = Timer.start(registry);
+        try {
+            BookingRun result = book(LocalDate.now(ZoneOffset.UTC));
+            registry.counter("planned.booking.booked").increment(result.booked());
+            registry.counter("planned.booking.failed").increment(result.failed());
+            passed.set(result.passed());
+            LOGGER.info("Booked " + result.booked() + " planned transaction(s), " + result.failed() + " failed");
+            if (result.passed() > 0) {
+                LOGGER.warning(result.passed() + " planned transaction(s) fell due on or before the booking "
+                        + "checkpoint and will not be booked");
+            }
+        } catch (RuntimeException e) {
+            registry.counter("planned.booking.failures").increment();
+            throw e;
+        } finally {
+            run.stop(registry.timer("planned.booking.run"));
         }
     }
+
+    BookingRun book(LocalDate today) {
+        long passedBefore = QuarkusTransaction.requiringNew().call(() ->
+                plannedRepo.countUnbookedThrough(checkpoints.lock(JOB)));
+        int booked = 0;
+        int failed = 0;
+        LocalDate firstFailedDue = null;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            Chunk chunk;
+            try {
+                chunk = QuarkusTransaction.requiringNew().call(() -> {
+                    LocalDate through = checkpoints.lock(JOB);
+                    List<Due> rows = plannedRepo.findUnbookedDue(through, today, from, chunkSize);
+                    return new Chunk(rows, bookRows(today, rows));
+                });
+            } catch (RuntimeException e) {
+                LOGGER.warning("Booking chunk after planned tx " + from + " failed, retrying row by row: "
+                        + e.getMessage());
+                List<Due> rows = QuarkusTransaction.requiringNew().call(() ->
+                        plannedRepo.findUnbookedDue(checkpoints.lock(JOB), today, from, chunkSize));
+                int rowsBooked = 0;
+                for (Due row : rows) {
+                    try {
+                        rowsBooked += QuarkusTransaction.requiringNew().call(() -> {
+                            checkpoints.lock(JOB);
+                            return bookRows(today, List.of(row));
+                        });
+                    } catch (RuntimeException rowFailure) {
+                        failed++;
+                        if (firstFailedDue == null || row.dueDate().isBefore(firstFailedDue)) {
+                            firstFailedDue = row.dueDate();
+                        }
+                        LOGGER.warning("Could not book planned tx " + row.id() + ": " + rowFailure.getMessage());
+                    }
+                }
+                chunk = new Chunk(rows, rowsBooked);
+            }
+            booked += chunk.booked();
+            if (chunk.rows().size() < chunkSize) break;
+            afterId = chunk.rows().get(chunk.rows().size() - 1).id();
+        }
+
+        LocalDate through = firstFailedDue == null ? today : firstFailedDue.minusDays(1);
+        QuarkusTransaction.requiringNew().run(() -> {
+            checkpoints.lock(JOB);
+            checkpoints.advance(JOB, through);
+        });
+        return new BookingRun(booked, failed, passedBefore);
+    }
+
+    private int bookRows(LocalDate today, List<Due> rows) {
+        List<Due> claimed = plannedRepo.claimForBooking(rows, today);
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Transaction> txs = claimed.stream().map(p -> {
+            Transaction t = new Transaction();
+            t.setUserSub(p.userSub());
+            t.setType(p.type());
+            t.setAmount(p.amount());
+            t.setCategoryId(p.categoryId());
+            t.setTxTime(now);
+            return t;
+        }).toList();
+
+        txRepo.insertAll(txs);
+        rollups.addAll(txs);
+        txs.stream()
+                .map(Transaction::getUserSub)
+                .distinct()
+                .forEach(userSub -> dataChanged.fire(new UserDataChanged(userSub)));
+        return txs.size();
+    }
+
+    record BookingRun(int booked, int failed, long passed) {
+    }
+
+    private record Chunk(List<Due> rows, int booked) {
+    }
 }
@@ -0,0 +1,41 @@
+package scheduler;
+
+import java.time.Duration;
+
+/**
+ * Fixed-window limiter for an external API's request quota (Binance weight, geocoder calls). Callers block
+ * until their weight fits into the current window, so a run never exceeds the configured weight per window
+ * however many workers share it.
+ */
+final class RequestWeightBudget {
+
+    private final int limit;
+    private final long windowNanos;
+    private long windowStart;
+    private int used;
+
+    RequestWeightBudget(int limit, Duration window) {
+        this.limit = limit;
+        this.windowNanos = window.toNanos();
+        this.windowStart = System.nanoTime();
+    }
+
+    synchronized void acquire(int weight) throws InterruptedException {
+        if (weight > limit) {
+            throw new IllegalArgumentException("Weight " + weight + " exceeds budget " + limit);
+        }
+        while (true) {
+            long now = System.nanoTime();
+            if (now - windowStart >= windowNanos) {
+                windowStart = now;
+                used = 0;
+            }
+            if (used + weight <= limit) {
+                used += weight;
+                return;
+            }
+            long waitNanos = windowNanos - (now - windowStart);
+            wait(Math.max(1, waitNanos / 1_000_000), 0);
+        }
+    }
+}
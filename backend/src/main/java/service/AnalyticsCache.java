@@ -0,0 +1,52 @@
+package service;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Per-user results of the analytics queries. Open periods (current month or year, "last N days", all-time
+ * totals) go to {@code analytics-current} with a short expiry; closed months and years go to
+ * {@code analytics-history} and are kept much longer. Entries are keyed by the user's stored data version, so
+ * a write committed on any replica makes the older entries unreachable and they simply expire.
+ */
+@ApplicationScoped
+public class AnalyticsCache {
+
+    @Inject
+    @CacheName("analytics-current")
+    Cache current;
+
+    @Inject
+    @CacheName("analytics-history")
+    Cache history;
+
+    @Inject
+    DataVersionService versions;
+
+    public <T> T current(String userSub, String query, List<?> args, Supplier<T> loader) {
+        return load(current, userSub, query, args, loader);
+    }
+
+    public <T> T history(String userSub, String query, List<?> args, Supplier<T> loader) {
+        return load(history, userSub, query, args, loader);
+    }
+
+    public void invalidateAll() {
+        current.invalidateAll().await().indefinitely();
+        history.invalidateAll().await().indefinitely();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(Cache cache, String userSub, String query, List<?> args, Supplier<T> loader) {
+        Key key = new Key(userSub, versions.current(userSub), query, List.copyOf(args));
+        return (T) cache.get(key, k -> loader.get()).await().indefinitely();
+    }
+
+    record Key(String userSub, long version, String query, List<?> args) {
+    }
+}
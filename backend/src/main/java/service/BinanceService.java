@@ -2,6 +2,8 @@ package service;
 
 import client.BinanceClient;
 import io.quarkus.cache.CacheResult;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
@@ -11,25 +13,45 @@ import model.external.BinanceAccountDTO;
 import model.external.BinanceTokenDTO;
 import model.external.CoinPortfolioEntryDTO;
 import model.external.FullPortfolioDTO;
-import model.external.TickerPriceDTO;
+import model.external.PortfolioHistoryDTO;
+import model.external.PortfolioPointDTO;
 import model.external.TopCoinDTO;
 import model.external.TradeDTO;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import repository.BinanceTokenRepository;
+import repository.PortfolioSnapshotRepository;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @ApplicationScoped
 public class BinanceService {
+    static final int DEFAULT_HISTORY_DAYS = 90;
+    static final int MAX_HISTORY_POINTS = 366;
+
     @Inject
     @RestClient
     BinanceClient client;
@@ -40,6 +62,35 @@ public class BinanceService {
     @Inject
     BinanceTokenMapper mapper;
 
+    @Inject
+    MarketDataService marketData;
+
+    @Inject
+    PortfolioSnapshotRepository snapshotRepo;
+
+    @ConfigProperty(name = "binance.trades.parallelism", defaultValue = "16")
+    int tradesParallelism;
+
+    @ConfigProperty(name = "binance.trades.timeout", defaultValue = "PT5S")
+    Duration tradesTimeout;
+
+    private ExecutorService tradeFetchers;
+
+    @PostConstruct
+    void startTradeFetchers() {
+        AtomicInteger seq = new AtomicInteger();
+        tradeFetchers = Executors.newFixedThreadPool(tradesParallelism, r -> {
+            Thread t = new Thread(r, "binance-trades-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    void stopTradeFetchers() {
+        tradeFetchers.shutdownNow();
+    }
+
     @Transactional
     public ServiceResponseDTO<BinanceTokenDTO> saveCredentials(
             String userSub,
@@ -77,7 +128,7 @@ public class BinanceService {
                 ));
     }
 
-    private String sign(String data, String secret) {
+    static String sign(String data, String secret) {
         try {
             Mac mac = Mac.getInstance("HmacSHA256");
             mac.init(new SecretKeySpec(secret.getBytes(), "HmacSHA256"));
@@ -97,39 +148,67 @@ public class BinanceService {
 
     @CacheResult(cacheName = "portfolio-cache")
     public ServiceResponseDTO<FullPortfolioDTO> getPortfolio(String userSub, String currency) {
-        currency = currency.toUpperCase();
-
         var optionalToken = tokenRepo.findByUserSub(userSub);
         if (optionalToken.isEmpty()) {
             return ServiceResponseDirector.errorNotFound("No Binance credentials stored for user.");
         }
         BinanceToken creds = optionalToken.get();
 
-        List<TickerPriceDTO> tickers;
+        MarketDataService.Snapshot market;
         try {
-            tickers = client.get24hrTicker();
+            market = marketData.current();
         } catch (Exception e) {
             return ServiceResponseDirector.errorInternal("Failed to fetch market data: " + e.getMessage());
         }
 
-        BigDecimal usdtToEur = tickers.stream()
-                .filter(t -> t.symbol.equalsIgnoreCase("EURUSDT") ||
-                        t.symbol.equalsIgnoreCase("USDTEUR"))
-                .findFirst()
-                .map(t -> t.symbol.equalsIgnoreCase("EURUSDT")
-                        ? BigDecimal.ONE.divide(t.lastPrice, 8, RoundingMode.HALF_UP)
-                        : t.lastPrice)
-                .orElse(BigDecimal.ONE);
-
-        BigDecimal conversionRate = currency.equals("EUR") ? usdtToEur : BigDecimal.ONE;
-
-        List<TickerPriceDTO> topTickers = tickers.stream()
-                .filter(t -> t.symbol.endsWith("USDT"))
-                .sorted((a, b) -> b.lastPrice.compareTo(a.lastPrice))
-                .limit(10)
+        return buildPortfolio(creds, currency, market);
+    }
+
+    /**
+     * Daily portfolio values between {@code from} and {@code to} (ISO dates; by default the last
+     * {@value #DEFAULT_HISTORY_DAYS} days), downsampled to at most {@code points} values by keeping the latest
+     * snapshot of each equally long bucket of days.
+     */
+    public ServiceResponseDTO<PortfolioHistoryDTO> getPortfolioHistory(String userSub, String from, String to,
+                                                                       int points) {
+        LocalDate end;
+        LocalDate start;
+        try {
+            end = to != null ? LocalDate.parse(to) : LocalDate.now();
+            start = from != null ? LocalDate.parse(from) : end.minusDays(DEFAULT_HISTORY_DAYS - 1);
+        } catch (DateTimeParseException ex) {
+            return ServiceResponseDirector.errorBadRequest("Invalid date format");
+        }
+        if (start.isAfter(end)) {
+            return ServiceResponseDirector.errorBadRequest("From date must not be after to date");
+        }
+        if (points < 1 || points > MAX_HISTORY_POINTS) {
+            return ServiceResponseDirector.errorBadRequest("Points must be between 1 and " + MAX_HISTORY_POINTS);
+        }
+
+        long days = ChronoUnit.DAYS.between(start, end) + 1;
+        int stepDays = (int) ((days + points - 1) / points);
+        List<PortfolioPointDTO> history = snapshotRepo.findHistory(userSub, start, end, stepDays).stream()
+                .map(p -> new PortfolioPointDTO(p.date(), p.totalEur(), p.assets()))
                 .toList();
+        return ServiceResponseDirector.successOk(new PortfolioHistoryDTO(start, end, stepDays, history),
+                "Portfolio history fetched successfully.");
+    }
+
+    /**
+     * Builds the portfolio from the shared market snapshot; touches only Binance, never the database,
+     * so it is safe to call from worker threads.
+     */
+    public ServiceResponseDTO<FullPortfolioDTO> buildPortfolio(
+            BinanceToken creds,
+            String currency,
+            MarketDataService.Snapshot market
+    ) {
+        currency = currency.toUpperCase();
 
-        List<TopCoinDTO> topMarketCoins = topTickers.stream()
+        BigDecimal conversionRate = currency.equals("EUR") ? market.usdtToEur() : BigDecimal.ONE;
+
+        List<TopCoinDTO> topMarketCoins = market.topUsdt().stream()
                 .map(t -> new TopCoinDTO(
                         t.symbol.replace("USDT", ""),
                         t.lastPrice.multiply(conversionRate),
@@ -141,54 +220,80 @@ public class BinanceService {
                 ))
                 .toList();
 
-        Map<String, BigDecimal> priceMap = tickers.stream()
-                .collect(Collectors.toMap(t -> t.symbol, t -> t.lastPrice));
-
         long ts = System.currentTimeMillis();
         String query = "recvWindow=60000&timestamp=" + ts;
         String sig = sign(query, creds.getSecretKey());
 
+        // fire all per-coin trade requests alongside the account call so latency is the slowest call, not the sum;
+        // a call still queued on the shared pool once the request gave up on it is skipped rather than sent
+        long deadline = System.nanoTime() + tradesTimeout.toNanos();
+        AtomicBoolean abandoned = new AtomicBoolean();
+        Map<String, CompletableFuture<List<TradeDTO>>> tradeCalls = new LinkedHashMap<>();
+        for (TopCoinDTO coin : topMarketCoins) {
+            String pair = coin.getSymbol() + "USDT";
+            String tradeQuery = "symbol=" + pair + "&limit=5&recvWindow=60000&timestamp=" + ts;
+            String tradeSig = sign(tradeQuery, creds.getSecretKey());
+            tradeCalls.put(pair, CompletableFuture.supplyAsync(() -> {
+                if (abandoned.get() || System.nanoTime() - deadline >= 0) {
+                    throw new CancellationException("Trade call for " + pair + " skipped after its deadline");
+                }
+                return client.getMyTrades(creds.getApiKey(), pair, 5, 60000, ts, tradeSig);
+            }, tradeFetchers));
+        }
+
         BinanceAccountDTO account;
         try {
             account = client.getAccount(creds.getApiKey(), 60000, ts, sig);
         } catch (Exception e) {
+            abandoned.set(true);
             return ServiceResponseDirector.errorInternal("Failed to fetch account info: " + e.getMessage());
         }
 
+        Map<String, BinanceAccountDTO.BalanceDTO> balances = new HashMap<>();
+        if (account.getBalances() != null) {
+            for (BinanceAccountDTO.BalanceDTO b : account.getBalances()) {
+                balances.putIfAbsent(b.getAsset(), b);
+            }
+        }
+
         List<CoinPortfolioEntryDTO> myCoins = new ArrayList<>();
         BigDecimal totalValue = BigDecimal.ZERO;
+        int missingTrades = 0;
 
         for (TopCoinDTO coin : topMarketCoins) {
             String asset = coin.getSymbol();
             String pair = asset + "USDT";
 
-            BinanceAccountDTO.BalanceDTO bal = account.getBalances().stream()
-                    .filter(b -> b.getAsset().equals(asset))
-                    .findFirst()
-                    .orElse(null);
+            BinanceAccountDTO.BalanceDTO bal = balances.get(asset);
 
             BigDecimal free = bal != null ? new BigDecimal(bal.getFree()) : BigDecimal.ZERO;
             BigDecimal locked = bal != null ? new BigDecimal(bal.getLocked()) : BigDecimal.ZERO;
             BigDecimal total = free.add(locked);
-            BigDecimal usdtPrice = priceMap.getOrDefault(pair, BigDecimal.ZERO);
+            BigDecimal usdtPrice = market.lastPrice(pair);
             BigDecimal value = usdtPrice.multiply(total).multiply(conversionRate);
 
             totalValue = totalValue.add(value);
 
-            String tradeQuery = "symbol=" + pair + "&limit=5&recvWindow=60000&timestamp=" + ts;
-            String tradeSig = sign(tradeQuery, creds.getSecretKey());
-
             List<TradeDTO> trades;
             try {
-                trades = client.getMyTrades(creds.getApiKey(), pair, 5, 60000, ts, tradeSig);
-            } catch (Exception e) {
+                trades = tradeCalls.get(pair).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException | TimeoutException | CancellationException e) {
+                trades = List.of();
+                missingTrades++;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
                 trades = List.of();
+                missingTrades++;
             }
 
             myCoins.add(new CoinPortfolioEntryDTO(asset, free, locked, value, trades));
         }
+        abandoned.set(true);
 
-        FullPortfolioDTO dto = new FullPortfolioDTO(topMarketCoins, myCoins, totalValue);
-        return ServiceResponseDirector.successOk(dto, "Portfolio fetched successfully.");
+        FullPortfolioDTO dto = new FullPortfolioDTO(topMarketCoins, myCoins, totalValue,
+                market.fetchedAt().atOffset(ZoneOffset.UTC), marketData.isStale(market));
+        return ServiceResponseDirector.successOk(dto, missingTrades == 0
+                ? "Portfolio fetched successfully."
+                : "Portfolio fetched; trade history unavailable for " + missingTrades + " coin(s).");
     }
 }
\ No newline at end of file
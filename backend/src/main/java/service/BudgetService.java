@@ -1,11 +1,13 @@
 package service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import mapper.BudgetMapper;
 import model.entity.Budget;
 import model.helper.PagedResponseDTO;
+import model.helper.UserDataChanged;
 import model.home.BudgetRequestDTO;
 import model.home.BudgetResponseDTO;
 import model.response.ServiceResponseDTO;
@@ -24,6 +26,8 @@ public class BudgetService {
     BudgetRepository repo;
     @Inject
     BudgetMapper map;
+    @Inject
+    Event<UserDataChanged> dataChanged;
 
     public ServiceResponseDTO<PagedResponseDTO<BudgetResponseDTO>> list(
             String userSub, int page, int size
@@ -66,6 +70,7 @@ public class BudgetService {
                     return map.entityToResponse(b);
                 })
                 .collect(Collectors.toList());
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successCreated(created, "Budgets created");
     }
 
@@ -90,6 +95,9 @@ public class BudgetService {
                 })
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        if (!updated.isEmpty()) {
+            dataChanged.fire(new UserDataChanged(userSub));
+        }
 
         return ServiceResponseDirector.successOk(updated, "Budgets updated");
     }
@@ -100,6 +108,9 @@ public class BudgetService {
             return ServiceResponseDirector.errorBadRequest("No categoryIds provided");
         }
         long deleted = repo.deleteByUserAndCategories(userSub, categoryIds);
+        if (deleted > 0) {
+            dataChanged.fire(new UserDataChanged(userSub));
+        }
         return ServiceResponseDirector.successOk(
                 deleted,
                 deleted == categoryIds.size()
@@ -2,28 +2,86 @@ package service;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import jakarta.persistence.Tuple;
+import mapper.TransactionMapper;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
+import model.tracking.CategoryBreakdownDTO;
+import model.tracking.DashboardBundleDTO;
 import model.tracking.DashboardSummaryDTO;
+import model.tracking.LocationDTO;
 import repository.TransactionRepository;
 
-import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 
 @ApplicationScoped
 public class DashboardService {
     @Inject
     TransactionRepository txRepo;
 
+    @Inject
+    TransactionMapper txMap;
+
+    @Inject
+    AnalyticsCache analytics;
+
     public ServiceResponseDTO<DashboardSummaryDTO> summary(String userSub) {
-        Tuple sums = txRepo.findTotalExpensesAndIncome(userSub);
-        BigDecimal expenses = sums.get("totalExpenses", BigDecimal.class);
-        BigDecimal income = sums.get("totalIncome", BigDecimal.class);
-        DashboardSummaryDTO dto = new DashboardSummaryDTO(
-                expenses != null ? expenses : BigDecimal.ZERO,
-                income != null ? income : BigDecimal.ZERO,
-                (income != null ? income : BigDecimal.ZERO)
-                        .subtract(expenses != null ? expenses : BigDecimal.ZERO)
+        DashboardSummaryDTO dto = analytics.current(userSub, "summary", List.of(), () -> {
+            TransactionRepository.Totals totals = txRepo.findTotals(userSub);
+            return new DashboardSummaryDTO(
+                    totals.expenses(),
+                    totals.income(),
+                    totals.balance()
+            );
+        });
+        return ServiceResponseDirector.successOk(dto, "OK");
+    }
+
+    /**
+     * Everything the home screen shows, equivalent to the separate summary, balance, recent, daily graph,
+     * category breakdown and top locations endpoints, in two queries.
+     */
+    public ServiceResponseDTO<DashboardBundleDTO> bundle(String userSub, int recentLimit, int days,
+                                                         String monthKey, int locationLimit) {
+        if (days < 1) {
+            return ServiceResponseDirector.errorBadRequest("Days must be positive");
+        }
+        if (recentLimit < 1 || locationLimit < 1) {
+            return ServiceResponseDirector.errorBadRequest("Limit must be positive");
+        }
+        YearMonth month;
+        try {
+            month = monthKey == null ? YearMonth.now(ZoneOffset.UTC) : YearMonth.parse(monthKey);
+        } catch (DateTimeParseException ex) {
+            return ServiceResponseDirector.errorBadRequest("Invalid month format");
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate dailyFrom = today.minusDays(days - 1L);
+
+        var totals = txRepo.findDashboardTotals(userSub, month);
+        var activity = txRepo.findDashboardActivity(userSub, Math.min(recentLimit, TransactionService.MAX_RECENT),
+                dailyFrom.atStartOfDay(), today.plusDays(1).atStartOfDay(),
+                Math.min(locationLimit, TransactionService.MAX_LOCATIONS));
+
+        DashboardBundleDTO dto = new DashboardBundleDTO(
+                new DashboardSummaryDTO(
+                        totals.totals().expenses(),
+                        totals.totals().income(),
+                        totals.totals().balance()
+                ),
+                activity.recent().stream().map(txMap::viewToResponse).toList(),
+                TransactionService.fillDays(dailyFrom, today, activity.daily()),
+                month.toString(),
+                totals.categories().stream()
+                        .map(c -> new CategoryBreakdownDTO(c.category(), c.amount()))
+                        .toList(),
+                activity.locations().stream()
+                        .map(l -> new LocationDTO(l.latitude(), l.longitude(), l.label(), l.amount()))
+                        .toList()
         );
         return ServiceResponseDirector.successOk(dto, "OK");
     }
@@ -0,0 +1,26 @@
+package service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import model.helper.UserDataChanged;
+import repository.UserDataVersionRepository;
+
+/**
+ * Per-user data version behind the conditional GET support. Every write path fires {@link UserDataChanged};
+ * the bump runs in the writer's transaction, so a version is never visible before the data it describes.
+ */
+@ApplicationScoped
+public class DataVersionService {
+
+    @Inject
+    UserDataVersionRepository versions;
+
+    void onChange(@Observes UserDataChanged event) {
+        versions.bump(event.userSub());
+    }
+
+    public long current(String userSub) {
+        return versions.current(userSub);
+    }
+}
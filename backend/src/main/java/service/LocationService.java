@@ -1,16 +1,36 @@
 package service;
 
 import client.GeocodeClient;
-import io.quarkus.cache.CacheResult;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.runtime.StartupEvent;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
 import jakarta.inject.Inject;
+import model.entity.GeocodeCell;
+import model.helper.GeoHash;
 import model.response.client.ReverseGeocodeResponse;
 import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import repository.GeocodeCellRepository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+/**
+ * Reverse geocoding keyed on geohash cells rather than exact coordinates. Lookups go through the in-memory
+ * {@code location-service} cache, then the {@code geocode_cell} table, and only then the geocoder; resolved
+ * cells are written back to the table so the hit rate survives restarts and is shared between instances.
+ */
 @ApplicationScoped
 public class LocationService {
 
+    private static final Logger LOGGER = Logger.getLogger(LocationService.class.getName());
+
     @Inject
     @RestClient
     GeocodeClient geocode;
@@ -19,11 +39,64 @@ public class LocationService {
     @ConfigProperty(name = "geocode.api-key")
     String apiKey;
 
-    @CacheResult(cacheName = "location-service")
+    @ConfigProperty(name = "geocode.cache.precision", defaultValue = "7")
+    int precision;
+
+    @ConfigProperty(name = "geocode.cache.warmup-size", defaultValue = "5000")
+    int warmupSize;
+
+    @Inject
+    GeocodeCellRepository cells;
+
+    @Inject
+    @CacheName("location-service")
+    Cache cache;
+
+    void warmUp(@Observes StartupEvent ev) {
+        if (warmupSize <= 0) return;
+        try {
+            List<GeocodeCell> recent = QuarkusTransaction.requiringNew().call(() -> cells.findMostRecent(warmupSize));
+            CaffeineCache l1 = cache.as(CaffeineCache.class);
+            for (GeocodeCell c : recent) {
+                l1.put(c.getGeohash(), CompletableFuture.completedFuture(c.getLocationName()));
+            }
+            LOGGER.info("Location cache warmed with " + recent.size() + " cells");
+        } catch (Exception e) {
+            LOGGER.warning("Location cache warm-up skipped: " + e.getMessage());
+        }
+    }
+
     public String getLocationName(double lat, double lon) {
+        return cache.get(cellOf(lat, lon), cell -> resolve(cell, lat, lon))
+                .await().indefinitely();
+    }
+
+    /**
+     * The name for this cell if it is already in memory, without touching the database or the geocoder.
+     */
+    public Optional<String> cachedName(double lat, double lon) {
+        CompletableFuture<Object> hit = cache.as(CaffeineCache.class).getIfPresent(cellOf(lat, lon));
+        if (hit == null || !hit.isDone() || hit.isCompletedExceptionally()) return Optional.empty();
+        return Optional.of((String) hit.join());
+    }
+
+    String cellOf(double lat, double lon) {
+        return GeoHash.encode(lat, lon, precision);
+    }
+
+    private String resolve(String cell, double lat, double lon) {
+        Optional<String> stored = cells.findName(cell);
+        if (stored.isPresent()) return stored.get();
+
         ReverseGeocodeResponse resp = geocode.reverse(lat, lon, apiKey);
-        return resp.display_name() != null
-                ? resp.display_name()
-                : String.format("%.6f,%.6f", lat, lon);
+        if (resp.display_name() == null) {
+            return String.format("%.6f,%.6f", lat, lon);
+        }
+        try {
+            QuarkusTransaction.requiringNew().run(() -> cells.upsert(cell, resp.display_name()));
+        } catch (Exception e) {
+            LOGGER.warning("Could not persist geocode cell " + cell + ": " + e.getMessage());
+        }
+        return resp.display_name();
     }
 }
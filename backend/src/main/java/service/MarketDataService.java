@@ -0,0 +1,130 @@
+package service;
+
+import client.BinanceClient;
+import io.quarkus.scheduler.Scheduled;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import model.external.TickerPriceDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Application-wide copy of the Binance 24h ticker. One background refresh serves every user instead of each
+ * portfolio request downloading the full (weight 80) payload itself.
+ */
+@ApplicationScoped
+public class MarketDataService {
+
+    private static final Logger LOGGER = Logger.getLogger(MarketDataService.class.getName());
+
+    @Inject
+    @RestClient
+    BinanceClient client;
+
+    @ConfigProperty(name = "binance.market-data.max-age", defaultValue = "PT5M")
+    Duration maxAge;
+
+    private volatile Snapshot snapshot;
+
+    @Scheduled(every = "${binance.market-data.refresh-interval:30s}",
+            concurrentExecution = Scheduled.ConcurrentExecution.SKIP)
+    void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            LOGGER.warning("Market data refresh failed, keeping snapshot from "
+                    + (snapshot != null ? snapshot.fetchedAt() : "never") + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized Snapshot refresh() {
+        Snapshot fresh = Snapshot.of(client.get24hrTicker(), Instant.now());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    /**
+     * Latest snapshot. Loads synchronously on first use or once the snapshot outlives
+     * {@code binance.market-data.max-age}; if that reload fails the stale snapshot is still returned and
+     * {@link Snapshot#isStale(Duration)} tells the caller. Throws only when nothing was ever loaded.
+     */
+    public Snapshot current() {
+        Snapshot s = snapshot;
+        if (s != null && !s.isStale(maxAge)) return s;
+        synchronized (this) {
+            s = snapshot;
+            if (s != null && !s.isStale(maxAge)) return s;
+            try {
+                return refresh();
+            } catch (RuntimeException e) {
+                if (s == null) throw e;
+                LOGGER.warning("Serving stale market data from " + s.fetchedAt() + ": " + e.getMessage());
+                return s;
+            }
+        }
+    }
+
+    public boolean isStale(Snapshot s) {
+        return s.isStale(maxAge);
+    }
+
+    void install(Snapshot s) {
+        snapshot = s;
+    }
+
+    public record Snapshot(
+            Map<String, TickerPriceDTO> bySymbol,
+            List<TickerPriceDTO> topUsdt,
+            BigDecimal usdtToEur,
+            Instant fetchedAt
+    ) {
+        static final int TOP_COINS = 10;
+
+        static Snapshot of(List<TickerPriceDTO> tickers, Instant fetchedAt) {
+            Map<String, TickerPriceDTO> bySymbol = new HashMap<>(tickers.size() * 2);
+            for (TickerPriceDTO t : tickers) {
+                bySymbol.put(t.symbol, t);
+            }
+
+            List<TickerPriceDTO> topUsdt = tickers.stream()
+                    .filter(t -> t.symbol.endsWith("USDT"))
+                    .sorted(Comparator.comparing((TickerPriceDTO t) -> t.lastPrice).reversed())
+                    .limit(TOP_COINS)
+                    .toList();
+
+            BigDecimal usdtToEur = BigDecimal.ONE;
+            TickerPriceDTO eurUsdt = bySymbol.get("EURUSDT");
+            TickerPriceDTO usdtEur = bySymbol.get("USDTEUR");
+            if (eurUsdt != null) {
+                usdtToEur = BigDecimal.ONE.divide(eurUsdt.lastPrice, 8, RoundingMode.HALF_UP);
+            } else if (usdtEur != null) {
+                usdtToEur = usdtEur.lastPrice;
+            }
+
+            return new Snapshot(Map.copyOf(bySymbol), topUsdt, usdtToEur, fetchedAt);
+        }
+
+        public BigDecimal lastPrice(String symbol) {
+            TickerPriceDTO t = bySymbol.get(symbol);
+            return t != null ? t.lastPrice : BigDecimal.ZERO;
+        }
+
+        public Duration age() {
+            return Duration.between(fetchedAt, Instant.now());
+        }
+
+        public boolean isStale(Duration maxAge) {
+            return age().compareTo(maxAge) > 0;
+        }
+    }
+}
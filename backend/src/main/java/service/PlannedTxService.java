@@ -1,11 +1,12 @@
 package service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import mapper.PlannedTxMapper;
-import model.entity.PlannedTx;
 import model.helper.PagedResponseDTO;
+import model.helper.UserDataChanged;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
 import model.transaction.PlannedTxRequestDTO;
@@ -22,6 +23,8 @@ public class PlannedTxService {
     PlannedTxRepository repo;
     @Inject
     PlannedTxMapper map;
+    @Inject
+    Event<UserDataChanged> dataChanged;
 
     public ServiceResponseDTO<List<PlannedTxResponseDTO>> list(
             String userSub,
@@ -33,14 +36,14 @@ public class PlannedTxService {
             Double maxAmount,
             String categoryName
     ) {
-        List<PlannedTx> all = repo.findWithFilters(
+        List<PlannedTxRepository.PlannedTxView> all = repo.findWithFilters(
                 userSub, title, dueFrom, dueTo,
                 type, minAmount, maxAmount,
                 categoryName
-        ).list();
+        ).project(PlannedTxRepository.PlannedTxView.class).list();
 
         var dtos = all.stream()
-                .map(map::entityToResponse)
+                .map(map::viewToResponse)
                 .toList();
 
         return ServiceResponseDirector.successOk(dtos, "OK");
@@ -65,10 +68,11 @@ public class PlannedTxService {
         );
 
         long total = query.count();
-        var items = query.page(io.quarkus.panache.common.Page.of(page, size))
+        var items = query.project(PlannedTxRepository.PlannedTxView.class)
+                .page(io.quarkus.panache.common.Page.of(page, size))
                 .list()
                 .stream()
-                .map(map::entityToResponse)
+                .map(map::viewToResponse)
                 .toList();
 
         var paged = new PagedResponseDTO<>(items, page, size, total);
@@ -76,12 +80,11 @@ public class PlannedTxService {
     }
 
     public ServiceResponseDTO<PlannedTxResponseDTO> getById(String userSub, Long id) {
-        var e = repo.find("userSub = ?1 and id = ?2", userSub, id)
-                .firstResult();
+        var e = repo.findViewByUserAndId(userSub, id);
         if (e == null) {
             return ServiceResponseDirector.errorNotFound("Not found");
         }
-        return ServiceResponseDirector.successOk(map.entityToResponse(e), "OK");
+        return ServiceResponseDirector.successOk(map.viewToResponse(e), "OK");
     }
 
     @Transactional
@@ -92,6 +95,7 @@ public class PlannedTxService {
         var e = map.requestToEntity(dto);
         e.setUserSub(userSub);
         repo.persist(e);
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successCreated(map.entityToResponse(e), "Created");
     }
 
@@ -108,6 +112,7 @@ public class PlannedTxService {
         }
         map.updateFromDto(dto, e);
         repo.persist(e);
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successOk(map.entityToResponse(e), "Updated");
     }
 
@@ -117,6 +122,7 @@ public class PlannedTxService {
         if (!ok) {
             return ServiceResponseDirector.errorNotFound("Not found");
         }
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successOk(true, "Deleted");
     }
 }
@@ -0,0 +1,316 @@
+package service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import jakarta.inject.Inject;
+import model.notification.PushMessage;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Outbound OneSignal queue. Pushes are accepted only once the transaction that produced them has committed,
+ * buffered in a bounded queue and drained in bursts; a burst's messages with the same title and body go out
+ * as one request carrying every recipient. Requests run on a bounded send pool and failed ones are scheduled
+ * for another attempt rather than waited for, so neither the drainer nor a sender ever sleeps.
+ */
+@ApplicationScoped
+public class PushDispatcher {
+
+    private static final Logger LOGGER = Logger.getLogger(PushDispatcher.class.getName());
+
+    @ConfigProperty(name = "onesignal.api.key")
+    String apiKey;
+
+    @ConfigProperty(name = "onesignal.app.id")
+    String appId;
+
+    @ConfigProperty(name = "onesignal.api.url", defaultValue = "https://api.onesignal.com/notifications")
+    URI notifyUri;
+
+    @ConfigProperty(name = "onesignal.dispatch.queue-capacity", defaultValue = "1000")
+    int queueCapacity;
+
+    @ConfigProperty(name = "onesignal.dispatch.linger", defaultValue = "PT0.2S")
+    Duration linger;
+
+    @ConfigProperty(name = "onesignal.dispatch.max-recipients", defaultValue = "2000")
+    int maxRecipients;
+
+    @ConfigProperty(name = "onesignal.dispatch.senders", defaultValue = "4")
+    int senders;
+
+    @ConfigProperty(name = "onesignal.dispatch.max-attempts", defaultValue = "4")
+    int maxAttempts;
+
+    @ConfigProperty(name = "onesignal.dispatch.initial-backoff", defaultValue = "PT0.5S")
+    Duration initialBackoff;
+
+    @ConfigProperty(name = "onesignal.dispatch.max-retry-after", defaultValue = "PT60S")
+    Duration maxRetryAfter;
+
+    @Inject
+    MeterRegistry registry;
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10)).build();
+
+    private BlockingQueue<PushMessage> queue;
+    private ExecutorService drainer;
+    private ThreadPoolExecutor sendPool;
+    private ScheduledExecutorService retries;
+    private volatile boolean running;
+
+    private DistributionSummary batchRecipients;
+    private Counter dropped;
+    private Counter rejected;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        registry.gauge("onesignal.queue.depth", queue, BlockingQueue::size);
+        batchRecipients = DistributionSummary.builder("onesignal.batch.recipients")
+                .description("Recipients per OneSignal request")
+                .register(registry);
+        dropped = registry.counter("onesignal.dropped");
+        rejected = registry.counter("onesignal.send.rejected");
+
+        // a full send pool rejects the request instead of running it on the drainer, see submit()
+        sendPool = new ThreadPoolExecutor(senders, senders, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(senders * 4), named("onesignal-send"),
+                new ThreadPoolExecutor.AbortPolicy());
+        retries = Executors.newSingleThreadScheduledExecutor(named("onesignal-retry"));
+        drainer = Executors.newSingleThreadExecutor(named("onesignal-drain"));
+        running = true;
+        drainer.execute(this::drainLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        drainer.shutdown();
+        try {
+            drainer.awaitTermination(5, TimeUnit.SECONDS);
+            int pending = retries.shutdownNow().size();
+            if (pending > 0) {
+                LOGGER.warning("Discarding " + pending + " pending push retries on shutdown");
+            }
+            sendPool.shutdown();
+            sendPool.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            drainer.shutdownNow();
+            retries.shutdownNow();
+            sendPool.shutdownNow();
+        }
+        if (!queue.isEmpty()) {
+            LOGGER.warning("Discarding " + queue.size() + " undelivered push notifications on shutdown");
+        }
+    }
+
+    /**
+     * Called after the firing transaction commits, or immediately when there was none. Rolled back work never
+     * reaches the queue.
+     */
+    void onPush(@Observes(during = TransactionPhase.AFTER_SUCCESS) PushMessage msg) {
+        enqueue(msg);
+    }
+
+    /**
+     * Never blocks: it runs on the committing request's thread, so a message that does not fit in the full
+     * queue is dropped and counted straight away.
+     */
+    public boolean enqueue(PushMessage msg) {
+        if (running && queue.offer(msg)) {
+            return true;
+        }
+        dropped.increment();
+        LOGGER.warning("Push queue full; dropping notification for " + msg.recipient());
+        return false;
+    }
+
+    private void drainLoop() {
+        List<PushMessage> burst = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                PushMessage first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                burst.add(first);
+                if (running) Thread.sleep(linger.toMillis());
+                queue.drainTo(burst);
+                dispatch(burst);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warning("Push dispatch failed: " + e.getMessage());
+            } finally {
+                burst.clear();
+            }
+        }
+    }
+
+    private void dispatch(List<PushMessage> burst) {
+        Map<Group, Set<String>> groups = new LinkedHashMap<>();
+        for (PushMessage m : burst) {
+            groups.computeIfAbsent(new Group(m.target(), m.title(), m.body()), g -> new LinkedHashSet<>())
+                    .add(m.recipient());
+        }
+        groups.forEach((group, recipients) -> {
+            List<String> all = List.copyOf(recipients);
+            for (int from = 0; from < all.size(); from += maxRecipients) {
+                List<String> chunk = all.subList(from, Math.min(from + maxRecipients, all.size()));
+                submit(new Send(request(group, chunk), chunk.size(), 1, initialBackoff.toMillis()));
+            }
+        });
+    }
+
+    /**
+     * Hands a request to the send pool. When the pool and its queue are full the request is dropped and
+     * counted as {@code onesignal.send.rejected}, separately from messages dropped at {@link #enqueue}.
+     */
+    private void submit(Send send) {
+        try {
+            sendPool.execute(() -> attempt(send));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            LOGGER.warning("Push send pool full; dropping request for " + send.recipients() + " recipient(s)");
+        }
+    }
+
+    private HttpRequest request(Group group, List<String> recipients) {
+        JsonObject body = new JsonObject()
+                .put("app_id", appId)
+                .put("target_channel", "push")
+                .put("headings", new JsonObject().put("en", group.title()))
+                .put("contents", new JsonObject().put("en", group.body()));
+        if (group.target() == PushMessage.Target.EXTERNAL_ID) {
+            body.put("include_aliases", new JsonObject().put("external_id", new JsonArray(recipients)));
+        } else {
+            body.put("include_subscription_ids", new JsonArray(recipients));
+        }
+        batchRecipients.record(recipients.size());
+
+        return HttpRequest.newBuilder()
+                .uri(notifyUri)
+                .timeout(Duration.ofSeconds(10))
+                .header("Authorization", "Key " + apiKey)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.encode()))
+                .build();
+    }
+
+    private void attempt(Send send) {
+        Timer.Sample sample = Timer.start(registry);
+        String failure;
+        long wait = send.backoff();
+        try {
+            HttpResponse<String> res = http.send(send.request(), HttpResponse.BodyHandlers.ofString());
+            int status = res.statusCode();
+            if (status < 400) {
+                sample.stop(registry.timer("onesignal.send", "outcome", "ok"));
+                LOGGER.info("OneSignal push ok " + status + " for " + send.recipients() + " recipient(s)");
+                return;
+            }
+            sample.stop(registry.timer("onesignal.send", "outcome", "error"));
+            if (status != 429 && status < 500) {
+                LOGGER.warning("OneSignal push rejected " + status + ": " + res.body());
+                return;
+            }
+            failure = status + ": " + res.body();
+            if (status == 429 || status == 503) {
+                wait = retryAfter(res).map(Duration::toMillis).orElse(wait);
+            }
+        } catch (IOException e) {
+            sample.stop(registry.timer("onesignal.send", "outcome", "error"));
+            failure = e.getMessage();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        if (send.attempt() >= maxAttempts) {
+            LOGGER.warning("OneSignal push failed after " + send.attempt() + " attempts: " + failure);
+            return;
+        }
+        try {
+            retries.schedule(() -> submit(send.next()), wait, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warning("Not retrying OneSignal push during shutdown: " + failure);
+        }
+    }
+
+    /**
+     * OneSignal's {@code Retry-After} on 429/503, in seconds or as an HTTP date, capped at
+     * {@code onesignal.dispatch.max-retry-after}.
+     */
+    private Optional<Duration> retryAfter(HttpResponse<?> res) {
+        return res.headers().firstValue("Retry-After").map(value -> {
+            try {
+                return Duration.ofSeconds(Long.parseLong(value.trim()));
+            } catch (NumberFormatException notSeconds) {
+                try {
+                    return Duration.between(Instant.now(),
+                            ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                } catch (DateTimeParseException notDate) {
+                    return null;
+                }
+            }
+        }).map(d -> d.isNegative() ? Duration.ZERO : d.compareTo(maxRetryAfter) > 0 ? maxRetryAfter : d);
+    }
+
+    private static ThreadFactory named(String prefix) {
+        AtomicInteger seq = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    private record Group(PushMessage.Target target, String title, String body) {
+    }
+
+    private record Send(HttpRequest request, int recipients, int attempt, long backoff) {
+        Send next() {
+            return new Send(request, recipients, attempt + 1, backoff * 2);
+        }
+    }
+}
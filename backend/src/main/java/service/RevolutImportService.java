@@ -1,64 +1,146 @@
 // src/main/java/service/RevolutImportService.java
 package service;
 
+import io.quarkus.narayana.jta.QuarkusTransaction;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import model.entity.Transaction;
+import model.external.RevolutImportSummaryDTO;
+import model.helper.UserDataChanged;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
 import model.external.RevolutTransactionDTO;
 import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @ApplicationScoped
 public class RevolutImportService {
 
+    static final int BATCH_SIZE = 500;
+
     @Inject
     RevolutStatementService parser;
     @Inject
     CategoryService categoryService;
     @Inject
     TransactionRepository txRepo;
+    @Inject
+    TxMonthlyRollupRepository rollups;
+    @Inject
+    Event<UserDataChanged> dataChanged;
 
     @Transactional
-    public ServiceResponseDTO<List<Transaction>> importMonthlyPdf(String userSub, java.io.InputStream pdf) {
+    public ServiceResponseDTO<RevolutImportSummaryDTO> importMonthlyPdf(String userSub, InputStream pdf) {
         try {
-            List<RevolutTransactionDTO> lines = parser.parseMonthlyStatement(pdf);
             var cat = categoryService.getOrCreateRevolutCategory();
-            Long catId = cat.getId();
-
-            List<Transaction> saved = lines.stream().map(dto -> {
-                var t = new Transaction();
-                t.setUserSub(userSub);
-
-                if (dto.sentAmount().signum() > 0) {
-                    t.setType("E");
-                    t.setAmount(dto.sentAmount());
-                } else {
-                    t.setType("I");
-                    t.setAmount(dto.receivedAmount());
-                }
-
-                t.setCategoryId(catId);
-                OffsetDateTime when = dto.date()
-                        .atTime(LocalTime.MIDNIGHT)
-                        .atOffset(ZoneOffset.UTC);
-                t.setTxTime(when);
-                t.persist();
-                return t;
-            }).toList();
+            BatchWriter writer = new BatchWriter(userSub, cat.getId());
+
+            txRepo.openImportStage();
+            int pages = parser.streamMonthlyStatement(pdf, writer);
+            writer.flush();
+
+            var merge = txRepo.mergeImportStage(userSub, cat.getId());
+            for (var m : merge.months()) {
+                rollups.applyDelta(userSub, m.month(), cat.getId(), m.type(), m.amount(), m.count());
+            }
+            if (merge.inserted() > 0) {
+                dataChanged.fire(new UserDataChanged(userSub));
+            }
 
             return ServiceResponseDirector.successCreated(
-                    saved,
-                    "Imported " + saved.size() + " revolut transactions"
+                    new RevolutImportSummaryDTO(merge.inserted(), merge.skipped(), pages, writer.from, writer.to),
+                    "Imported " + merge.inserted() + " revolut transactions, skipped "
+                            + merge.skipped() + " already imported"
             );
         } catch (Exception e) {
+            // earlier batches are already in the transaction; don't commit half a statement
+            QuarkusTransaction.setRollbackOnly();
             return ServiceResponseDirector.errorBadRequest("Failed to parse PDF");
         }
     }
+
+    private final class BatchWriter implements Consumer<RevolutTransactionDTO> {
+        private final String userSub;
+        private final Long categoryId;
+        private final List<TransactionRepository.ImportRow> pending = new ArrayList<>(BATCH_SIZE);
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private LocalDate from;
+        private LocalDate to;
+
+        BatchWriter(String userSub, Long categoryId) {
+            this.userSub = userSub;
+            this.categoryId = categoryId;
+        }
+
+        @Override
+        public void accept(RevolutTransactionDTO dto) {
+            var t = new Transaction();
+            t.setUserSub(userSub);
+
+            if (dto.sentAmount().signum() > 0) {
+                t.setType("E");
+                t.setAmount(dto.sentAmount());
+            } else {
+                t.setType("I");
+                t.setAmount(dto.receivedAmount());
+            }
+
+            t.setCategoryId(categoryId);
+            OffsetDateTime when = dto.date()
+                    .atTime(LocalTime.MIDNIGHT)
+                    .atOffset(ZoneOffset.UTC);
+            t.setTxTime(when);
+
+            String key = contentKey(dto);
+            int ordinal = occurrences.merge(key, 1, Integer::sum) - 1;
+            pending.add(new TransactionRepository.ImportRow(fingerprint(key, ordinal), t));
+            if (from == null || dto.date().isBefore(from)) from = dto.date();
+            if (to == null || dto.date().isAfter(to)) to = dto.date();
+            if (pending.size() >= BATCH_SIZE) flush();
+        }
+
+        void flush() {
+            if (pending.isEmpty()) return;
+            txRepo.stageImport(pending);
+            pending.clear();
+        }
+    }
+
+    static String contentKey(RevolutTransactionDTO dto) {
+        String description = dto.description() == null ? "" : dto.description().trim().replaceAll("\\s+", " ");
+        return dto.date() + "|" + description
+                + "|" + dto.sentAmount().stripTrailingZeros().toPlainString()
+                + "|" + dto.receivedAmount().stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * SHA-256 of the line's content plus its ordinal among identical lines of the same statement, so two
+     * genuine same-day coffees stay two rows while a re-uploaded statement maps onto the same fingerprints.
+     */
+    static String fingerprint(String contentKey, int ordinal) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((contentKey + "#" + ordinal).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -2,6 +2,7 @@ package service;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import model.external.RevolutTransactionDTO;
+import org.apache.pdfbox.io.MemoryUsageSetting;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.text.PDFTextStripper;
 
@@ -14,6 +15,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -30,6 +33,11 @@ public class RevolutStatementService {
             Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
     );
 
+    private static final Pattern HR_DATE = Pattern.compile(
+            "(\\d{1,2})\\.\\s*([a-zšđčćž]{3})\\s+(\\d{4})\\.",
+            Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+    );
+
     private static final DateTimeFormatter NUM_DF = DateTimeFormatter.ofPattern("dd.MM.yyyy");
 
     private static final Map<String, Integer> HR_MONTH = Map.ofEntries(
@@ -41,26 +49,46 @@ public class RevolutStatementService {
 
     public List<RevolutTransactionDTO> parseMonthlyStatement(InputStream pdf) throws IOException {
         List<RevolutTransactionDTO> out = new ArrayList<>();
+        streamMonthlyStatement(pdf, out::add);
+        return out;
+    }
 
-        try (PDDocument doc = PDDocument.load(pdf)) {
-            String text = new PDFTextStripper().getText(doc);
+    /**
+     * Extracts and parses one page at a time, handing each row to {@code sink} as soon as it is read.
+     * The document is buffered in a scratch file, so heap use stays at roughly one page of text.
+     *
+     * @return number of pages read
+     */
+    public int streamMonthlyStatement(InputStream pdf, Consumer<RevolutTransactionDTO> sink) throws IOException {
+        try (PDDocument doc = PDDocument.load(pdf, MemoryUsageSetting.setupTempFileOnly())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            int pages = doc.getNumberOfPages();
+
+            for (int page = 1; page <= pages; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                stripper.getText(doc).lines()
+                        .map(RevolutStatementService::parseLine)
+                        .filter(Objects::nonNull)
+                        .forEach(sink);
+            }
+            return pages;
+        }
+    }
 
-            for (String raw : text.split("\\R")) {
-                Matcher m = LINE.matcher(raw.trim());
-                if (!m.matches()) continue;
+    static RevolutTransactionDTO parseLine(String raw) {
+        Matcher m = LINE.matcher(raw.trim());
+        if (!m.matches()) return null;
 
-                LocalDate date = parseDate(m.group(1));
-                String desc = m.group(2).trim();
-                BigDecimal sent = toDecimal(m.group(3));
-                BigDecimal recv = toDecimal(m.group(4));
+        LocalDate date = parseDate(m.group(1));
+        String desc = m.group(2).trim();
+        BigDecimal sent = toDecimal(m.group(3));
+        BigDecimal recv = toDecimal(m.group(4));
 
-                out.add(new RevolutTransactionDTO(date, desc, sent, recv));
-            }
-        }
-        return out;
+        return new RevolutTransactionDTO(date, desc, sent, recv);
     }
 
-    private static BigDecimal toDecimal(String in) {
+    static BigDecimal toDecimal(String in) {
 
         String s = in.replace("−", "-")
                 .replace(",", ".")
@@ -79,15 +107,14 @@ public class RevolutStatementService {
         return new BigDecimal(s);
     }
 
-    private static LocalDate parseDate(String raw) {
+    static LocalDate parseDate(String raw) {
         raw = raw.trim();
 
         if (raw.matches("\\d{2}\\.\\d{2}\\.\\d{4}")) {
             return LocalDate.parse(raw, NUM_DF);
         }
 
-        Matcher m = Pattern.compile("(\\d{1,2})\\.\\s*([a-zšđčćž]{3})\\s+(\\d{4})\\.", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE)
-                .matcher(raw);
+        Matcher m = HR_DATE.matcher(raw);
         if (m.matches()) {
             int day = Integer.parseInt(m.group(1));
             String mon = m.group(2).toLowerCase(Locale.ROOT);
@@ -1,9 +1,11 @@
 package service;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import mapper.SavingsGoalMapper;
+import model.helper.UserDataChanged;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
 import model.settings.SavingsGoalRequestDTO;
@@ -16,6 +18,8 @@ public class SavingsGoalService {
     SavingsGoalRepository repo;
     @Inject
     SavingsGoalMapper map;
+    @Inject
+    Event<UserDataChanged> dataChanged;
 
     public ServiceResponseDTO<SavingsGoalResponseDTO> get(String userSub) {
         var e = repo.findByUser(userSub);
@@ -31,6 +35,7 @@ public class SavingsGoalService {
             SavingsGoalRequestDTO dto
     ) {
         var existing = repo.findByUser(userSub);
+        dataChanged.fire(new UserDataChanged(userSub));
         if (existing == null) {
             existing = map.requestToEntity(dto);
             existing.setUserSub(userSub);
@@ -62,6 +67,7 @@ public class SavingsGoalService {
         if (dto.targetAmt != null) e.setTargetAmt(dto.targetAmt);
         if (dto.targetDate != null) e.setTargetDate(dto.targetDate);
         e.persist();
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successOk(
                 map.entityToResponse(e),
                 "Savings goal partially updated"
@@ -74,6 +80,7 @@ public class SavingsGoalService {
         if (!ok) {
             return ServiceResponseDirector.errorNotFound("No savings goal to delete");
         }
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successOk(true, "Deleted");
     }
 }
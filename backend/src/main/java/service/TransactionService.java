@@ -1,46 +1,53 @@
 package service;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
-import io.quarkus.panache.common.Page;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
 import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import mapper.TransactionMapper;
 import model.entity.Category;
 import model.entity.Transaction;
 import model.helper.PagedResponseDTO;
+import model.helper.TxCursor;
+import model.helper.UserDataChanged;
 import model.home.FullTxRequestDTO;
 import model.home.QuickTxRequestDTO;
 import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
 import model.response.ServiceResponseDirector;
 import model.tracking.CategoryBreakdownDTO;
+import model.tracking.GeocodeBacklogDTO;
 import model.tracking.LocationDTO;
 import model.tracking.SpendingVsIncomeDTO;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import repository.BudgetRepository;
 import repository.CategoryRepository;
 import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
 import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
+import java.util.function.Supplier;
 
 @ApplicationScoped
 public class TransactionService {
 
     private static final BigDecimal LARGE_TX_THRESHOLD = new BigDecimal("1000.00");
-
-    @Inject
-    LocationService locationService;
+    // larger list requests are served capped at these sizes
+    static final int MAX_RECENT = 100;
+    static final int MAX_LOCATIONS = 50;
 
     @Inject
     TransactionRepository txRepo;
@@ -51,25 +58,37 @@ public class TransactionService {
     @Inject
     CategoryRepository categoryRepository;
 
+    @Inject
+    TxMonthlyRollupRepository rollups;
+
     @Inject
     TransactionMapper txMap;
 
+    @ConfigProperty(name = "geocode.backfill.max-attempts", defaultValue = "6")
+    int geocodeMaxAttempts;
+
     @Inject
     NotificationService notifier;
 
+    @Inject
+    Event<UserDataChanged> dataChanged;
+
+    @Inject
+    AnalyticsCache analytics;
+
     public ServiceResponseDTO<TxResponseDTO> findById(String userSub, Long id) {
-        Transaction t = txRepo.findByIdAndUser(userSub, id);
+        TransactionRepository.TxView t = txRepo.findViewByIdAndUser(userSub, id);
         if (t == null) {
             return ServiceResponseDirector.errorNotFound("Transaction not found");
         }
         return ServiceResponseDirector.successOk(
-                txMap.entityToResponse(t),
+                txMap.viewToResponse(t),
                 "OK"
         );
     }
 
     public ServiceResponseDTO<List<SpendingVsIncomeDTO>> spendingVsIncome(String userSub, int year) {
-        List<SpendingVsIncomeDTO> list = txRepo
+        List<SpendingVsIncomeDTO> list = forYear(userSub, "spending-vs-income", year, () -> txRepo
                 .findSpendingVsIncomeByYear(userSub, year)
                 .stream()
                 .map(t -> new SpendingVsIncomeDTO(
@@ -77,27 +96,45 @@ public class TransactionService {
                         t.get("expenses", BigDecimal.class),
                         t.get("income", BigDecimal.class)
                 ))
-                .collect(Collectors.toList());
+                .toList());
 
         return ServiceResponseDirector.successOk(list, "OK");
     }
 
     public ServiceResponseDTO<List<CategoryBreakdownDTO>> categoryBreakdown(String userSub, String monthKey) {
-        List<CategoryBreakdownDTO> list = txRepo
-                .findCategoryBreakdown(userSub, monthKey)
+        if (monthKey == null) {
+            return ServiceResponseDirector.errorBadRequest("Month is required");
+        }
+        YearMonth month;
+        try {
+            month = YearMonth.parse(monthKey);
+        } catch (DateTimeParseException ex) {
+            return ServiceResponseDirector.errorBadRequest("Invalid month format");
+        }
+
+        Supplier<List<CategoryBreakdownDTO>> load = () -> txRepo
+                .findCategoryBreakdown(userSub, month.toString())
                 .stream()
                 .map(t -> new CategoryBreakdownDTO(
                         t.get("category", String.class),
                         t.get("amount", BigDecimal.class)
                 ))
-                .collect(Collectors.toList());
+                .toList();
+        List<Object> args = List.of(month);
+        List<CategoryBreakdownDTO> list = month.isBefore(YearMonth.now(ZoneOffset.UTC))
+                ? analytics.history(userSub, "category-breakdown", args, load)
+                : analytics.current(userSub, "category-breakdown", args, load);
 
         return ServiceResponseDirector.successOk(list, "OK");
     }
 
     public ServiceResponseDTO<List<LocationDTO>> topLocations(String userSub, int limit) {
-        List<LocationDTO> list = txRepo
-                .findTopLocations(userSub, limit)
+        if (limit < 1) {
+            return ServiceResponseDirector.errorBadRequest("Limit must be positive");
+        }
+        int capped = Math.min(limit, MAX_LOCATIONS);
+        List<LocationDTO> list = analytics.current(userSub, "top-locations", List.of(capped), () -> txRepo
+                .findTopLocations(userSub, capped)
                 .stream()
                 .map(t -> new LocationDTO(
                         t.get("latitude", BigDecimal.class),
@@ -105,16 +142,19 @@ public class TransactionService {
                         t.get("label", String.class),
                         t.get("amount", BigDecimal.class)
                 ))
-                .collect(Collectors.toList());
+                .toList());
 
         return ServiceResponseDirector.successOk(list, "OK");
     }
 
     public ServiceResponseDTO<List<TxResponseDTO>> recent(String userSub, int limit) {
+        if (limit < 1) {
+            return ServiceResponseDirector.errorBadRequest("Limit must be positive");
+        }
         List<TxResponseDTO> dtos = txRepo
-                .findRecent(userSub, limit)
+                .findRecentViews(userSub, Math.min(limit, MAX_RECENT))
                 .stream()
-                .map(txMap::entityToResponse)
+                .map(txMap::viewToResponse)
                 .toList();
 
         return ServiceResponseDirector.successOk(dtos, "OK");
@@ -132,36 +172,81 @@ public class TransactionService {
             String note,
             String categoryName
     ) {
-        LocalDateTime dueFrom = null, dueTo = null;
+        return page(userSub, page, size, type, minAmount, maxAmount,
+                dueFromStr, dueToStr, note, categoryName, null, true);
+    }
+
+    /**
+     * With a {@code cursor} the page is located by seeking past it and {@code page} is only echoed back;
+     * {@code withTotal = false} skips the COUNT and reports {@link PagedResponseDTO#UNKNOWN_TOTAL}.
+     */
+    public ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>> page(
+            String userSub,
+            int page,
+            int size,
+            String type,
+            BigDecimal minAmount,
+            BigDecimal maxAmount,
+            String dueFromStr,
+            String dueToStr,
+            String note,
+            String categoryName,
+            String cursor,
+            boolean withTotal
+    ) {
+        LocalDateTime dueFrom = null, dueBefore = null;
         try {
             if (dueFromStr != null) dueFrom = OffsetDateTime.parse(dueFromStr).toLocalDateTime();
-            if (dueToStr != null) dueTo = OffsetDateTime.parse(dueToStr).toLocalDateTime();
+            if (dueToStr != null) dueBefore = OffsetDateTime.parse(dueToStr).toLocalDateTime();
         } catch (DateTimeParseException ex) {
             return ServiceResponseDirector.errorBadRequest("Invalid date format");
         }
 
+        TxCursor after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                after = TxCursor.decode(cursor);
+            } catch (IllegalArgumentException ex) {
+                return ServiceResponseDirector.errorBadRequest("Invalid cursor");
+            }
+        }
+
         PanacheQuery<Transaction> query = txRepo.findByUserWithFilters(
-                userSub, type, minAmount, maxAmount, dueFrom, dueTo,
-                note, categoryName
+                userSub, type, minAmount, maxAmount, dueFrom, dueBefore,
+                note, categoryName, after
         );
 
-        long total = query.count();
-        List<TxResponseDTO> dtos = query
-                .page(Page.of(page, size))
-                .list()
-                .stream()
-                .map(txMap::entityToResponse)
+        // the total covers the whole filtered list, not just the rows past the cursor
+        long total = !withTotal ? PagedResponseDTO.UNKNOWN_TOTAL
+                : after == null ? query.count()
+                : txRepo.findByUserWithFilters(userSub, type, minAmount, maxAmount, dueFrom, dueBefore,
+                note, categoryName, null).count();
+
+        // one extra row tells us whether another page exists without counting
+        PanacheQuery<TransactionRepository.TxView> views = query.project(TransactionRepository.TxView.class);
+        List<TransactionRepository.TxView> rows = after != null
+                ? views.range(0, size).list()
+                : views.range(page * size, page * size + size).list();
+        boolean hasMore = rows.size() > size;
+        if (hasMore) rows = rows.subList(0, size);
+
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionRepository.TxView last = rows.get(rows.size() - 1);
+            nextCursor = new TxCursor(last.txTime(), last.id()).encode();
+        }
+
+        List<TxResponseDTO> dtos = rows.stream()
+                .map(txMap::viewToResponse)
                 .toList();
 
-        var paged = new PagedResponseDTO<>(dtos, page, size, total);
+        var paged = new PagedResponseDTO<>(dtos, page, size, total, nextCursor);
         return ServiceResponseDirector.successOk(paged, "OK");
     }
 
     public ServiceResponseDTO<BigDecimal> getBalance(String userSub) {
-        BigDecimal income = txRepo.sumByType(userSub, "I");
-        BigDecimal expense = txRepo.sumByType(userSub, "E");
         return ServiceResponseDirector.successOk(
-                income.subtract(expense),
+                txRepo.findTotals(userSub).balance(),
                 "OK"
         );
     }
@@ -171,64 +256,65 @@ public class TransactionService {
             OffsetDateTime from,
             OffsetDateTime to
     ) {
-        var dtos = txRepo.findByUserAndDateRange(userSub, from, to)
-                .stream().map(txMap::entityToResponse).toList();
+        var dtos = txRepo.findViewsByDateRange(userSub, from, to)
+                .stream().map(txMap::viewToResponse).toList();
         return ServiceResponseDirector.successOk(dtos, "OK");
     }
 
     public ServiceResponseDTO<Map<String, BigDecimal>> findDailyExpenses(
             String userSub, int days
     ) {
-        var now = OffsetDateTime.now(ZoneOffset.UTC);
-        var start = now.minusDays(days - 1)
-                .withHour(0).withMinute(0).withSecond(0).withNano(0);
-
-        var sums = txRepo.findByUserAndDateRange(userSub, start, now).stream()
-                .collect(Collectors.groupingBy(
-                        t -> t.getTxTime().toLocalDate().toString(),
-                        TreeMap::new,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                t -> {
-                                    // map expense → negative, income → positive
-                                    return "E".equals(t.getType())
-                                            ? t.getAmount().negate()
-                                            : t.getAmount();
-                                },
-                                BigDecimal::add
-                        )
-                ));
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = today.minusDays(days - 1L);
+
+        // keyed on today as well, so the window moves at midnight even while the entry is fresh
+        Map<String, BigDecimal> sums = analytics.current(userSub, "daily-expenses", List.of(days, today),
+                () -> fillDays(start, today, txRepo.findDailyExpenses(userSub, start, today)));
         return ServiceResponseDirector.successOk(sums, "OK");
     }
 
     public ServiceResponseDTO<Map<String, BigDecimal>> findMonthlyExpenses(
             String userSub, int year
     ) {
-        LocalDate yStart = LocalDate.of(year, 1, 1);
-        LocalDate yEnd = LocalDate.of(year, 12, 31);
-        var from = yStart.atStartOfDay().atOffset(ZoneOffset.UTC);
-        var to = yEnd.atTime(LocalTime.MAX).atOffset(ZoneOffset.UTC);
-
-        var sums = txRepo.findByUserAndDateRange(userSub, from, to).stream()
-                .collect(Collectors.groupingBy(
-                        t -> String.format("%d-%02d",
-                                t.getTxTime().getYear(),
-                                t.getTxTime().getMonthValue()),
-                        TreeMap::new,
-                        Collectors.reducing(
-                                BigDecimal.ZERO,
-                                t -> {
-                                    return "E".equals(t.getType())
-                                            ? t.getAmount().negate()
-                                            : t.getAmount();
-                                },
-                                BigDecimal::add
-                        )
-                ));
-
+        Map<String, BigDecimal> sums = forYear(userSub, "monthly-expenses", year,
+                () -> fillMonths(year, txRepo.findMonthlyExpenses(userSub, year)));
         return ServiceResponseDirector.successOk(sums, "OK");
     }
 
+    /**
+     * One entry per day of {@code start..end}, zero where the database returned no row. {@code sums} must be
+     * ordered by day, as the query returns it.
+     */
+    static Map<String, BigDecimal> fillDays(LocalDate start, LocalDate end,
+                                            List<TransactionRepository.DailySum> sums) {
+        int n = (int) (end.toEpochDay() - start.toEpochDay() + 1);
+        Map<String, BigDecimal> out = new LinkedHashMap<>(Math.max(n, 0) * 4 / 3 + 1);
+        int next = 0;
+        for (LocalDate d = start; !d.isAfter(end); d = d.plusDays(1)) {
+            while (next < sums.size() && sums.get(next).day().isBefore(d)) next++;
+            BigDecimal total = BigDecimal.ZERO;
+            if (next < sums.size() && sums.get(next).day().equals(d)) total = sums.get(next++).total();
+            out.put(d.toString(), total);
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    static Map<String, BigDecimal> fillMonths(int year, List<TransactionRepository.MonthlySum> sums) {
+        BigDecimal[] totals = new BigDecimal[12];
+        for (TransactionRepository.MonthlySum m : sums) totals[m.month() - 1] = m.total();
+        Map<String, BigDecimal> out = new LinkedHashMap<>(17);
+        for (int m = 1; m <= 12; m++) {
+            out.put(YearMonth.of(year, m).toString(), totals[m - 1] != null ? totals[m - 1] : BigDecimal.ZERO);
+        }
+        return Collections.unmodifiableMap(out);
+    }
+
+    private <T> T forYear(String userSub, String query, int year, Supplier<T> load) {
+        return year < Year.now(ZoneOffset.UTC).getValue()
+                ? analytics.history(userSub, query, List.of(year), load)
+                : analytics.current(userSub, query, List.of(year), load);
+    }
+
     @Transactional
     public ServiceResponseDTO<TxResponseDTO> quickAdd(String userSub, QuickTxRequestDTO dto) {
         Transaction t = txMap.quickRequestToEntity(dto);
@@ -240,8 +326,10 @@ public class TransactionService {
 
         t.setUserSub(userSub);
         t.persist();
+        rollups.add(t);
+        dataChanged.fire(new UserDataChanged(userSub));
 
-        checkAndNotify(userSub, t);
+        checkAndNotify(userSub, null, t);
 
         return ServiceResponseDirector.successCreated(
                 txMap.entityToResponse(t), "Successfully Created");
@@ -252,20 +340,10 @@ public class TransactionService {
         Transaction t = txMap.fullRequestToEntity(dto);
         t.setUserSub(userSub);
         t.persist();
+        rollups.add(t);
+        dataChanged.fire(new UserDataChanged(userSub));
 
-        String locationName = null;
-        if (t.getLatitude() != null && t.getLongitude() != null) {
-            try {
-                locationName = locationService.getLocationName(
-                        t.getLatitude().doubleValue(),
-                        t.getLongitude().doubleValue()
-                );
-            } catch (Exception ignored) {
-            }
-        }
-        t.setLocationName(locationName);
-
-        checkAndNotify(userSub, t);
+        checkAndNotify(userSub, null, t);
 
         return ServiceResponseDirector
                 .successCreated(txMap.entityToResponse(t), "Successfully Created");
@@ -278,14 +356,16 @@ public class TransactionService {
             return ServiceResponseDirector.errorNotFound("Transaction not found");
         }
 
+        var before = TxMonthlyRollupRepository.Contribution.of(t);
         txMap.updateFromFullDto(dto, t);
 
+        boolean moved = false;
         if (dto.latitude() != null && dto.longitude() != null) {
-            t.setLocationName(
-                    locationService.getLocationName(
-                            dto.latitude().doubleValue(),
-                            dto.longitude().doubleValue())
-            );
+            moved = !sameCoordinate(t.getLatitude(), dto.latitude())
+                    || !sameCoordinate(t.getLongitude(), dto.longitude());
+            if (moved) {
+                t.setLocationName(null);
+            }
             t.setLatitude(dto.latitude());
             t.setLongitude(dto.longitude());
         } else {
@@ -293,23 +373,42 @@ public class TransactionService {
         }
 
         t.persistAndFlush();
+        if (moved) {
+            txRepo.requeueGeocode(t.getId());
+        }
+        rollups.remove(before);
+        rollups.add(t);
+        dataChanged.fire(new UserDataChanged(userSub));
 
-        checkAndNotify(userSub, t);
+        checkAndNotify(userSub, before, t);
 
         return ServiceResponseDirector.successOk(
                 txMap.entityToResponse(t), "Successfully Updated");
     }
 
+    public ServiceResponseDTO<GeocodeBacklogDTO> geocodeBacklog(String userSub) {
+        var backlog = txRepo.countGeocodeBacklog(userSub, geocodeMaxAttempts);
+        return ServiceResponseDirector.successOk(
+                new GeocodeBacklogDTO(backlog.pending(), backlog.exhausted()), "OK");
+    }
+
+    private static boolean sameCoordinate(BigDecimal current, BigDecimal next) {
+        return current != null && current.compareTo(next) == 0;
+    }
+
     @Transactional
     public ServiceResponseDTO<Boolean> delete(String userSub, Long id) {
-        boolean deleted = txRepo.deleteByIdAndUser(userSub, id);
-        if (!deleted) {
+        Transaction t = txRepo.findByIdAndUser(userSub, id);
+        if (t == null) {
             return ServiceResponseDirector.errorNotFound("Transaction not found");
         }
+        txRepo.delete(t);
+        rollups.remove(TxMonthlyRollupRepository.Contribution.of(t));
+        dataChanged.fire(new UserDataChanged(userSub));
         return ServiceResponseDirector.successOk(true, "Successfully Deleted");
     }
 
-    private void checkAndNotify(String userSub, Transaction t) {
+    private void checkAndNotify(String userSub, TxMonthlyRollupRepository.Contribution before, Transaction t) {
         if (!"E".equals(t.getType())) return;
 
         if (t.getAmount() != null && t.getAmount().compareTo(LARGE_TX_THRESHOLD) > 0) {
@@ -321,19 +420,33 @@ public class TransactionService {
             );
         }
 
-        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
-        BigDecimal spent = txRepo.sumExpensesForCategorySince(userSub, t.getCategoryId(), monthStart);
-        if (spent == null) spent = BigDecimal.ZERO;
+        if (t.getCategoryId() == null) return;
 
-        BigDecimal budget = budgetRepository.findAmountByUserAndCategory(userSub, t.getCategoryId());
-        if (budget != null && spent.compareTo(budget) > 0) {
-            String catName = categoryRepository.findCategoryNameById(t.getCategoryId());
-            notifier.sendToUser(
-                    userSub,
-                    "🚨 Budget Exceeded",
-                    "You've exceeded your " + catName + " budget!"
-            );
+        // the rollup already includes this write; only the write that takes spending over the budget notifies
+        LocalDate month = TxMonthlyRollupRepository.monthOf(OffsetDateTime.now(ZoneOffset.UTC));
+        BigDecimal added = spentIn(TxMonthlyRollupRepository.Contribution.of(t), month, t.getCategoryId())
+                .subtract(spentIn(before, month, t.getCategoryId()));
+        if (added.signum() <= 0) return;
+
+        budgetRepository.findStatus(userSub, t.getCategoryId(), month)
+                .filter(s -> crossed(s.limit(), s.spent().subtract(added), s.spent()))
+                .ifPresent(s -> notifier.sendToUser(
+                        userSub,
+                        "🚨 Budget Exceeded",
+                        "You've exceeded your " + s.categoryName() + " budget!"
+                ));
+    }
+
+    static boolean crossed(BigDecimal limit, BigDecimal spentBefore, BigDecimal spentAfter) {
+        return spentBefore.compareTo(limit) <= 0 && spentAfter.compareTo(limit) > 0;
+    }
+
+    private static BigDecimal spentIn(TxMonthlyRollupRepository.Contribution c, LocalDate month, Long categoryId) {
+        if (c == null || c.amount() == null || !"E".equals(c.type())
+                || !month.equals(c.month()) || !categoryId.equals(c.categoryId())) {
+            return BigDecimal.ZERO;
         }
+        return c.amount();
     }
 
 }
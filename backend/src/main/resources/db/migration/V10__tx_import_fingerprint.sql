@@ -0,0 +1,6 @@
+ALTER TABLE tx ADD import_fingerprint CHAR(64) NULL;
+GO
+
+CREATE UNIQUE INDEX ux_tx_user_import_fingerprint
+    ON tx (user_sub, import_fingerprint)
+    WHERE import_fingerprint IS NOT NULL;
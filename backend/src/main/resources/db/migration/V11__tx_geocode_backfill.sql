@@ -0,0 +1,8 @@
+ALTER TABLE tx ADD geo_attempts TINYINT NOT NULL CONSTRAINT df_tx_geo_attempts DEFAULT 0;
+ALTER TABLE tx ADD geo_next_attempt DATETIME2 NULL;
+GO
+
+CREATE INDEX ix_tx_geo_pending
+    ON tx (geo_next_attempt)
+    INCLUDE (latitude, longitude, geo_attempts, user_sub)
+    WHERE location_name IS NULL AND latitude IS NOT NULL AND longitude IS NOT NULL;
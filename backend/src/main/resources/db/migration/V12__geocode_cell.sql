@@ -0,0 +1,10 @@
+CREATE TABLE geocode_cell
+(
+    geohash       VARCHAR(12)  NOT NULL PRIMARY KEY,
+    location_name VARCHAR(255) NOT NULL,
+    resolved_at   DATETIME2    NOT NULL DEFAULT SYSUTCDATETIME()
+);
+
+CREATE INDEX ix_geocode_cell_resolved_at
+    ON geocode_cell (resolved_at DESC)
+    INCLUDE (location_name);
@@ -0,0 +1,6 @@
+CREATE TABLE user_data_version
+(
+    user_sub   VARCHAR(60) NOT NULL PRIMARY KEY,
+    version    BIGINT      NOT NULL,
+    updated_at DATETIME2   NOT NULL DEFAULT SYSUTCDATETIME()
+);
@@ -0,0 +1,4 @@
+-- reminders and booking select planned tx by due date across all users
+CREATE INDEX ix_planned_tx_due_date
+    ON planned_tx (due_date, id)
+    INCLUDE (user_sub, category_id, title);
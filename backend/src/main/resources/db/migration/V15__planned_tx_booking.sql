@@ -0,0 +1,16 @@
+-- set in the same transaction that books the planned tx, so a rerun or a second pod skips it
+ALTER TABLE planned_tx
+    ADD booked_on DATE NULL;
+GO
+
+-- last due date a batch job has fully processed
+CREATE TABLE job_checkpoint
+(
+    job_name     VARCHAR(64) NOT NULL PRIMARY KEY,
+    through_date DATE        NOT NULL,
+    updated_at   DATETIME2   NOT NULL DEFAULT SYSUTCDATETIME()
+);
+
+-- booking starts from today; planned tx that fell due while the job could not run stay unbooked
+INSERT INTO job_checkpoint (job_name, through_date)
+VALUES ('planned-tx-booking', DATEADD(DAY, -1, CAST(SYSUTCDATETIME() AS DATE)));
@@ -0,0 +1,10 @@
+-- one row per scheduled job (or job partition); only the pod holding an unexpired lease runs it
+CREATE TABLE scheduler_lease
+(
+    lease_name  VARCHAR(96)  NOT NULL PRIMARY KEY,
+    owner       VARCHAR(128) NOT NULL,
+    locked_at   DATETIME2    NOT NULL,
+    expires_at  DATETIME2    NOT NULL,
+    -- NULL while the owner is still running; an expired lease that was never released was abandoned
+    released_at DATETIME2    NULL
+);
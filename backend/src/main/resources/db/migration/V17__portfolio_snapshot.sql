@@ -0,0 +1,65 @@
+-- one row per user and day with the Binance portfolio value; written by the nightly snapshot job
+CREATE TABLE portfolio_snapshot
+(
+    user_sub      VARCHAR(60)    NOT NULL,
+    snapshot_date DATE           NOT NULL,
+    total_eur     DECIMAL(18, 2) NOT NULL,
+    CONSTRAINT pk_portfolio_snapshot PRIMARY KEY (user_sub, snapshot_date)
+);
+
+-- EUR value per held asset of the same snapshot; assets with no balance are not stored
+CREATE TABLE portfolio_snapshot_asset
+(
+    user_sub      VARCHAR(60)    NOT NULL,
+    snapshot_date DATE           NOT NULL,
+    asset         VARCHAR(20)    NOT NULL,
+    eur_value     DECIMAL(18, 2) NOT NULL,
+    CONSTRAINT pk_portfolio_snapshot_asset PRIMARY KEY (user_sub, snapshot_date, asset),
+    CONSTRAINT fk_portfolio_snapshot_asset FOREIGN KEY (user_sub, snapshot_date)
+        REFERENCES portfolio_snapshot (user_sub, snapshot_date) ON DELETE CASCADE
+);
+
+-- the snapshot used to be a single tx row per user, overwritten in place and found by its note
+INSERT INTO portfolio_snapshot (user_sub, snapshot_date, total_eur)
+SELECT user_sub, CAST(tx_time AS DATE), amount
+FROM (SELECT user_sub, tx_time, amount,
+             ROW_NUMBER() OVER (PARTITION BY user_sub ORDER BY tx_time DESC) AS rn
+      FROM tx
+      WHERE note = 'Binance Portfolio Snapshot'
+        AND category_id = (SELECT id FROM category WHERE name = 'Investments')) s
+WHERE rn = 1;
+
+UPDATE r
+SET total_amount = r.total_amount - s.total_amount,
+    tx_count     = r.tx_count - s.tx_count
+FROM tx_monthly_rollup r
+JOIN (SELECT user_sub,
+             DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1) AS month_start,
+             category_id,
+             type,
+             SUM(amount)                                     AS total_amount,
+             COUNT(*)                                        AS tx_count
+      FROM tx
+      WHERE note = 'Binance Portfolio Snapshot'
+        AND category_id = (SELECT id FROM category WHERE name = 'Investments')
+      GROUP BY user_sub, DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), category_id, type) s
+  ON s.user_sub = r.user_sub AND s.month_start = r.month_start
+ AND s.category_id = r.category_id AND s.type = r.type;
+
+DELETE FROM tx_monthly_rollup WHERE tx_count <= 0;
+
+-- cached GET responses of these users included the removed rows
+MERGE INTO user_data_version AS target
+USING (SELECT DISTINCT user_sub
+       FROM tx
+       WHERE note = 'Binance Portfolio Snapshot'
+         AND category_id = (SELECT id FROM category WHERE name = 'Investments')) AS source
+  ON target.user_sub = source.user_sub
+WHEN MATCHED THEN
+  UPDATE SET version = target.version + 1, updated_at = SYSUTCDATETIME()
+WHEN NOT MATCHED THEN
+  INSERT (user_sub, version) VALUES (source.user_sub, 1);
+
+DELETE FROM tx
+WHERE note = 'Binance Portfolio Snapshot'
+  AND category_id = (SELECT id FROM category WHERE name = 'Investments');
@@ -0,0 +1,20 @@
+CREATE TABLE tx_monthly_rollup
+(
+    user_sub     VARCHAR(60)    NOT NULL,
+    month_start  DATE           NOT NULL,
+    category_id  BIGINT         NOT NULL,
+    type         CHAR(1)        NOT NULL CHECK (type IN ('E', 'I')),
+    total_amount DECIMAL(18, 2) NOT NULL,
+    tx_count     INT            NOT NULL,
+    CONSTRAINT pk_tx_monthly_rollup PRIMARY KEY (user_sub, month_start, category_id, type)
+);
+
+INSERT INTO tx_monthly_rollup (user_sub, month_start, category_id, type, total_amount, tx_count)
+SELECT user_sub,
+       DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1),
+       category_id,
+       type,
+       SUM(amount),
+       COUNT(*)
+FROM tx
+GROUP BY user_sub, DATEFROMPARTS(YEAR(tx_time), MONTH(tx_time), 1), category_id, type;
@@ -0,0 +1,12 @@
+CREATE INDEX ix_tx_user_time
+    ON tx (user_sub, tx_time DESC)
+    INCLUDE (type, amount, category_id);
+
+CREATE INDEX ix_tx_user_category_type_time
+    ON tx (user_sub, category_id, type, tx_time)
+    INCLUDE (amount);
+
+CREATE INDEX ix_tx_user_located
+    ON tx (user_sub, type)
+    INCLUDE (latitude, longitude, location_name, amount)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
@@ -0,0 +1,51 @@
+package metrics;
+
+import client.GeocodeClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.Test;
+import utils.NoDbProfile;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@QuarkusTest
+@TestProfile(MeasuredInterceptorTest.UnreachableGeocoder.class)
+class MeasuredInterceptorTest {
+
+    @Inject
+    @RestClient
+    GeocodeClient geocodeClient;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void restClientCall_Fails_TimedWithInterfaceAndMethodTags() {
+        assertThatThrownBy(() -> geocodeClient.reverse(45.8, 15.9, "key"));
+
+        Timer timer = registry.find("client.request")
+                .tags("class", "GeocodeClient", "method", "reverse", "outcome", "error")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.getId().getTags()).noneMatch(t -> t.getValue().contains("45.8"));
+    }
+
+    public static class UnreachableGeocoder extends NoDbProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+            overrides.put("geocode-api/mp-rest/url", "http://localhost:1");
+            overrides.put("geocode-api/mp-rest/connectTimeout", "500");
+            return overrides;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package repository;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import mapper.TransactionMapper;
+import model.entity.Category;
+import model.entity.Transaction;
+import model.home.TxResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes allocated per list request on the entity path (managed {@link Transaction}s mapped to DTOs) versus the
+ * {@link TransactionRepository.TxView} projection path. Each request runs in its own transaction, like a
+ * resource call, so the entity path pays for its persistence context and snapshots.
+ */
+@QuarkusTest
+class TransactionProjectionAllocationIT {
+
+    private static final String USER = "alloc-user";
+    private static final int ROWS = 500;
+    private static final int PAGE = 50;
+    private static final int WARMUP = 200;
+    private static final int RUNS = 500;
+
+    @Inject
+    TransactionRepository txRepo;
+    @Inject
+    CategoryRepository categoryRepo;
+    @Inject
+    TransactionMapper txMap;
+
+    @BeforeEach
+    @Transactional
+    void seed() {
+        txRepo.delete("userSub", USER);
+        Category cat = categoryRepo.findByName("Alloc IT").orElseGet(() -> {
+            Category c = new Category();
+            c.setName("Alloc IT");
+            categoryRepo.persist(c);
+            return c;
+        });
+        OffsetDateTime start = OffsetDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        for (int i = 0; i < ROWS; i++) {
+            txRepo.persist(new Transaction(
+                    null, USER, i % 3 == 0 ? "I" : "E", new BigDecimal("12.50"), cat.getId(),
+                    start.plusHours(i), null, null, "note " + i, null));
+        }
+    }
+
+    @Test
+    void projection_allocates_less_than_entities_per_page() {
+        long entity = bytesPerRequest(this::entityPage);
+        long view = bytesPerRequest(this::viewPage);
+
+        assertThat(viewPage()).isEqualTo(entityPage());
+        assertThat(view)
+                .as("tx list page of %d: entity %d B/request, projection %d B/request", PAGE, entity, view)
+                .isLessThan(entity);
+    }
+
+    List<TxResponseDTO> entityPage() {
+        return QuarkusTransaction.requiringNew().call(() -> txRepo
+                .findByUserWithFilters(USER, null, null, null, null, null, null, null, null)
+                .range(0, PAGE - 1)
+                .list()
+                .stream()
+                .map(txMap::entityToResponse)
+                .toList());
+    }
+
+    List<TxResponseDTO> viewPage() {
+        return QuarkusTransaction.requiringNew().call(() -> txRepo
+                .findByUserWithFilters(USER, null, null, null, null, null, null, null, null)
+                .project(TransactionRepository.TxView.class)
+                .range(0, PAGE - 1)
+                .list()
+                .stream()
+                .map(txMap::viewToResponse)
+                .toList());
+    }
+
+    private static long bytesPerRequest(Supplier<List<TxResponseDTO>> request) {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+        for (int i = 0; i < WARMUP; i++) request.get();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < RUNS; i++) request.get();
+        return (threads.getThreadAllocatedBytes(tid) - before) / RUNS;
+    }
+}
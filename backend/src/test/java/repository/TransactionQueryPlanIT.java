@@ -0,0 +1,128 @@
+package repository;
+
+import io.quarkus.test.junit.QuarkusTest;
+import jakarta.inject.Inject;
+import jakarta.transaction.Transactional;
+import model.entity.Category;
+import model.entity.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@QuarkusTest
+class TransactionQueryPlanIT {
+
+    private static final int USERS = 10;
+    private static final int TX_PER_USER = 200;
+
+    @Inject
+    TransactionRepository txRepo;
+    @Inject
+    CategoryRepository categoryRepo;
+    @Inject
+    DataSource dataSource;
+
+    Long catId;
+
+    @BeforeEach
+    @Transactional
+    void seed() {
+        txRepo.delete("userSub like ?1", "plan-user-%");
+        Category cat = categoryRepo.findByName("Plan IT").orElseGet(() -> {
+            Category c = new Category();
+            c.setName("Plan IT");
+            categoryRepo.persist(c);
+            return c;
+        });
+        catId = cat.getId();
+
+        OffsetDateTime start = OffsetDateTime.of(2024, 1, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+        for (int u = 0; u < USERS; u++) {
+            for (int i = 0; i < TX_PER_USER; i++) {
+                boolean located = i % 10 == 0;
+                txRepo.persist(new Transaction(
+                        null, "plan-user-" + u, i % 3 == 0 ? "I" : "E", new BigDecimal("12.50"), catId,
+                        start.plusDays(i * 2L),
+                        located ? new BigDecimal("45.800000") : null,
+                        located ? new BigDecimal("15.970000") : null,
+                        null, located ? "Zagreb" : null
+                ));
+            }
+        }
+    }
+
+    @Test
+    void daily_expenses_seek_user_time_index() throws SQLException {
+        clearPlanCache();
+        txRepo.findDailyExpenses("plan-user-3", LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31));
+
+        String plan = lastPlanFor("tx_time");
+        assertThat(plan).contains("[ix_tx_user_time]");
+        assertNoFullScanOfTx(plan);
+    }
+
+    @Test
+    void top_locations_use_filtered_index() throws SQLException {
+        clearPlanCache();
+        txRepo.findTopLocations("plan-user-3", 3);
+
+        String plan = lastPlanFor("latitude");
+        assertThat(plan).contains("[ix_tx_user_located]");
+        assertNoFullScanOfTx(plan);
+    }
+
+    @Test
+    void recent_seeks_user_time_index() throws SQLException {
+        clearPlanCache();
+        txRepo.findRecent("plan-user-3", 5);
+
+        String plan = lastPlanFor("tx_time");
+        assertThat(plan).contains("[ix_tx_user_time]");
+        assertNoFullScanOfTx(plan);
+    }
+
+    private void assertNoFullScanOfTx(String plan) {
+        assertThat(plan)
+                .doesNotContain("PhysicalOp=\"Table Scan\"")
+                .doesNotContain("PhysicalOp=\"Clustered Index Scan\"")
+                .doesNotContain("PhysicalOp=\"Index Scan\"");
+    }
+
+    private void clearPlanCache() throws SQLException {
+        try (Connection c = dataSource.getConnection(); Statement s = c.createStatement()) {
+            s.execute("DBCC FREEPROCCACHE WITH NO_INFOMSGS");
+        }
+    }
+
+    private String lastPlanFor(String fragment) throws SQLException {
+        try (Connection c = dataSource.getConnection();
+             PreparedStatement ps = c.prepareStatement("""
+                     SELECT TOP 1 CAST(qp.query_plan AS NVARCHAR(MAX))
+                     FROM sys.dm_exec_query_stats qs
+                     CROSS APPLY sys.dm_exec_sql_text(qs.sql_handle) st
+                     CROSS APPLY sys.dm_exec_query_plan(qs.plan_handle) qp
+                     WHERE st.text LIKE '%from tx %'
+                       AND st.text LIKE ?
+                       AND st.text NOT LIKE '%dm_exec_query_stats%'
+                     ORDER BY qs.last_execution_time DESC
+                     """)) {
+            ps.setString(1, "%" + fragment + "%");
+            try (ResultSet rs = ps.executeQuery()) {
+                assertThat(rs.next()).as("cached plan for tx query").isTrue();
+                return rs.getString(1);
+            }
+        }
+    }
+}
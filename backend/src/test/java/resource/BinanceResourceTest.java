@@ -8,15 +8,21 @@ import io.quarkus.test.security.TestSecurity;
 import io.restassured.RestAssured;
 import jakarta.ws.rs.core.Response;
 import model.external.BinanceTokenDTO;
+import model.external.PortfolioHistoryDTO;
 import model.response.ServiceResponseDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import service.BinanceService;
 import utils.NoDbProfileWithPermitOidc;
 
+import java.time.LocalDate;
+import java.util.List;
+
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -107,4 +113,27 @@ class BinanceResourceTest {
                 .body("success", equalTo(false))
                 .body("data", equalTo(null));
     }
+
+    @TestSecurity(user = "dskrlac", roles = "user")
+    @Test
+    void testGetPortfolioHistory_ReturnsOk_WithRequestedRange() {
+        ServiceResponseDTO<PortfolioHistoryDTO> responseDTO = new ServiceResponseDTO<>();
+        responseDTO.setSuccess(true);
+        responseDTO.setData(new PortfolioHistoryDTO(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 3, 31), 3, List.of()));
+        responseDTO.setStatusCode(200);
+
+        when(binanceService.getPortfolioHistory(eq("dskrlac"), eq("2026-01-01"), isNull(), eq(30)))
+                .thenReturn(responseDTO);
+
+        given()
+                .queryParam("from", "2026-01-01")
+                .queryParam("points", 30)
+                .when()
+                .get("/portfolio/history")
+                .then()
+                .statusCode(Response.Status.OK.getStatusCode())
+                .body("success", equalTo(true))
+                .body("data.stepDays", equalTo(3));
+    }
 }
@@ -13,6 +13,7 @@ import model.home.BudgetResponseDTO;
 import model.response.ServiceResponseDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import repository.UserDataVersionRepository;
 import service.BudgetService;
 import utils.NoDbProfileWithPermitOidc;
 
@@ -31,6 +32,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfileWithPermitOidc.class)
 class BudgetResourceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     BudgetService svc;
 
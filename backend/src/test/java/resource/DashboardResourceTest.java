@@ -8,17 +8,28 @@ import io.quarkus.test.security.TestSecurity;
 import io.restassured.RestAssured;
 import jakarta.ws.rs.core.Response;
 import model.response.ServiceResponseDTO;
+import model.tracking.DashboardBundleDTO;
 import model.tracking.DashboardSummaryDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import repository.UserDataVersionRepository;
 import service.DashboardService;
 import utils.NoDbProfileWithPermitOidc;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 
 import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
@@ -26,6 +37,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfileWithPermitOidc.class)
 class DashboardResourceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     DashboardService svc;
 
@@ -59,4 +73,47 @@ class DashboardResourceTest {
                 .body("data.totalIncome", equalTo(1200.00F))
                 .body("data.budgetRemaining", equalTo(700.00F));
     }
+
+    @TestSecurity(user = "user1", roles = "user")
+    @Test
+    void bundle_MatchingIfNoneMatch_ReturnsNotModifiedWithoutCallingService() {
+        var dto = new DashboardBundleDTO(
+                new DashboardSummaryDTO(new BigDecimal("5"), new BigDecimal("10"), new BigDecimal("5")),
+                List.of(), Map.of("2025-03-02", new BigDecimal("-5")), "2025-03", List.of(), List.of());
+        var resp = new ServiceResponseDTO<DashboardBundleDTO>();
+        resp.setSuccess(true);
+        resp.setData(dto);
+        resp.setStatusCode(200);
+
+        when(dataVersions.current("user1")).thenReturn(4L);
+        when(svc.bundle(anyString(), anyInt(), anyInt(), any(), anyInt())).thenReturn(resp);
+
+        String etag = given()
+                .when()
+                .get("/bundle")
+                .then()
+                .statusCode(200)
+                .header("ETag", notNullValue())
+                .header("Cache-Control", containsString("no-cache"))
+                .body("data.summary.totalIncome", equalTo(10))
+                .body("data.month", equalTo("2025-03"))
+                .extract().header("ETag");
+
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/bundle")
+                .then()
+                .statusCode(Response.Status.NOT_MODIFIED.getStatusCode());
+        verify(svc, times(1)).bundle(anyString(), anyInt(), anyInt(), any(), anyInt());
+
+        when(dataVersions.current("user1")).thenReturn(5L);
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/bundle")
+                .then()
+                .statusCode(200)
+                .header("ETag", not(equalTo(etag)));
+    }
 }
@@ -12,6 +12,7 @@ import model.transaction.PlannedTxRequestDTO;
 import model.transaction.PlannedTxResponseDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import repository.UserDataVersionRepository;
 import service.PlannedTxService;
 import utils.NoDbProfileWithPermitOidc;
 
@@ -29,6 +30,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfileWithPermitOidc.class)
 class PlannedTxResourceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     PlannedTxService service;
 
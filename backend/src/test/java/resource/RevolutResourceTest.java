@@ -6,18 +6,14 @@ import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.quarkus.test.security.TestSecurity;
 import io.restassured.RestAssured;
-import mapper.TransactionMapper;
-import model.entity.Transaction;
-import model.home.TxResponseDTO;
+import model.external.RevolutImportSummaryDTO;
 import model.response.ServiceResponseDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import service.RevolutImportService;
-import service.TransactionService;
 import utils.NoDbProfileWithPermitOidc;
 
-import java.math.BigDecimal;
-import java.util.List;
+import java.time.LocalDate;
 
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
@@ -32,10 +28,6 @@ class RevolutResourceTest {
 
     @InjectMock
     RevolutImportService importSvc;
-    @InjectMock
-    TransactionService txService;
-    @InjectMock
-    TransactionMapper transactionMapper;
 
     @BeforeAll
     static void setup() {
@@ -45,18 +37,12 @@ class RevolutResourceTest {
     @TestSecurity(user = "user1", roles = "user")
     @Test
     void testImportPdf_ReturnsCreated_WhenValidFile() {
-        var entityTx = new Transaction();
-        entityTx.setId(1L);
-
-        var resp = new ServiceResponseDTO<List<Transaction>>();
+        var resp = new ServiceResponseDTO<RevolutImportSummaryDTO>();
         resp.setSuccess(true);
-        resp.setData(List.of(entityTx));
+        resp.setData(new RevolutImportSummaryDTO(1, 0, 1, LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 1)));
         resp.setStatusCode(201);
 
         when(importSvc.importMonthlyPdf(anyString(), any())).thenReturn(resp);
-        when(transactionMapper.entityToResponse(any(Transaction.class))).thenReturn(
-                new TxResponseDTO(1L, "EXPENSE", BigDecimal.valueOf(50), 2L, null, null, null)
-        );
 
         given()
                 .multiPart("file", "revolut.pdf", "dummy".getBytes())
@@ -64,7 +50,7 @@ class RevolutResourceTest {
                 .then()
                 .statusCode(201)
                 .body("success", equalTo(true))
-                .body("data.size()", equalTo(1));
+                .body("data.imported", equalTo(1));
     }
 
     @TestSecurity(user = "user1", roles = "user")
@@ -12,6 +12,7 @@ import model.settings.SavingsGoalRequestDTO;
 import model.settings.SavingsGoalResponseDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import repository.UserDataVersionRepository;
 import service.SavingsGoalService;
 import utils.NoDbProfileWithPermitOidc;
 
@@ -29,6 +30,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfileWithPermitOidc.class)
 class SavingsGoalResourceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     SavingsGoalService svc;
 
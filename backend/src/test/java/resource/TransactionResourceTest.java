@@ -12,11 +12,13 @@ import model.home.QuickTxRequestDTO;
 import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
 import model.tracking.CategoryBreakdownDTO;
+import model.tracking.GeocodeBacklogDTO;
 import model.tracking.LocationDTO;
 import model.tracking.SpendingVsIncomeDTO;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import repository.UserDataVersionRepository;
 import service.TransactionService;
 import utils.NoDbProfileWithPermitOidc;
 
@@ -29,6 +31,7 @@ import java.util.Map;
 import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -39,6 +42,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfileWithPermitOidc.class)
 class TransactionResourceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     TransactionService txService;
 
@@ -73,7 +79,7 @@ class TransactionResourceTest {
         resp.setData(page);
         resp.setStatusCode(200);
 
-        when(txService.page(anyString(), anyInt(), anyInt(), any(), any(), any(), any(), any(), any(), any()))
+        when(txService.page(anyString(), anyInt(), anyInt(), any(), any(), any(), any(), any(), any(), any(), any(), anyBoolean()))
                 .thenReturn(resp);
 
         given().queryParam("page", 0).queryParam("size", 10)
@@ -82,6 +88,22 @@ class TransactionResourceTest {
                 .body("success", equalTo(true));
     }
 
+    @TestSecurity(user = "user1", roles = "user")
+    @Test
+    void geocodeBacklog_ReturnsOk() {
+        var resp = new ServiceResponseDTO<GeocodeBacklogDTO>();
+        resp.setSuccess(true);
+        resp.setData(new GeocodeBacklogDTO(3, 1));
+        resp.setStatusCode(200);
+
+        when(txService.geocodeBacklog("user1")).thenReturn(resp);
+
+        given().when().get("/geocode-backlog")
+                .then().statusCode(200)
+                .body("data.pending", equalTo(3))
+                .body("data.exhausted", equalTo(1));
+    }
+
     @TestSecurity(user = "user1", roles = "user")
     @Test
     void balance_ReturnsOk() {
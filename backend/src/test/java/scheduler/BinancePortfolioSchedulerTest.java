@@ -1,26 +1,41 @@
 package scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
+import model.entity.BinanceToken;
+import model.external.CoinPortfolioEntryDTO;
 import model.external.FullPortfolioDTO;
+import model.helper.Partition;
 import model.response.ServiceResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import repository.BinanceTokenRepository;
-import repository.CategoryRepository;
-import repository.TransactionRepository;
+import repository.PortfolioSnapshotRepository;
+import repository.PortfolioSnapshotRepository.Valuation;
+import repository.SchedulerLeaseRepository;
+import repository.UserDataVersionRepository;
 import service.BinanceService;
+import service.MarketDataService;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,76 +43,118 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfile.class)
 class BinancePortfolioSchedulerTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @Inject
     BinancePortfolioScheduler scheduler;
 
+    @Inject
+    MeterRegistry registry;
+
     @InjectMock
     BinanceTokenRepository tokenRepo;
     @InjectMock
     BinanceService binanceService;
     @InjectMock
-    CategoryRepository categoryRepo;
+    PortfolioSnapshotRepository snapshots;
+    @InjectMock
+    MarketDataService marketData;
     @InjectMock
-    TransactionRepository txRepo;
+    SchedulerLeaseRepository leases;
 
-    @Test
-    void snapshotBinancePortfolio_NoSnapshotExists_InsertsNewSnapshot() {
-        when(tokenRepo.findAllUsersWithBinanceTokens()).thenReturn(List.of("u1"));
-        when(categoryRepo.findIdByName("Investments")).thenReturn(77L);
+    final MarketDataService.Snapshot market =
+            new MarketDataService.Snapshot(Map.of(), List.of(), BigDecimal.ONE, Instant.now());
 
-        FullPortfolioDTO dto = mock(FullPortfolioDTO.class);
-        when(dto.getTotalEurValue()).thenReturn(new BigDecimal("100"));
-        @SuppressWarnings("unchecked")
-        ServiceResponseDTO<FullPortfolioDTO> ok = mock(ServiceResponseDTO.class);
-        when(ok.isSuccess()).thenReturn(true);
-        when(ok.getData()).thenReturn(dto);
-        when(binanceService.getPortfolio("u1", "EUR")).thenReturn(ok);
+    @BeforeEach
+    void setUp() {
+        when(marketData.current()).thenReturn(market);
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(new SchedulerLeaseRepository.Grant(null, false)));
+    }
 
-        when(txRepo.getLastSnapshotAmount("u1", 77L, "Binance Portfolio Snapshot")).thenReturn(null);
-        when(txRepo.snapshotExists("u1", 77L, "Binance Portfolio Snapshot")).thenReturn(false);
+    @Test
+    void snapshotBinancePortfolio_PortfolioFetched_AppendsTodaysValuationOfHeldAssets() {
+        BinanceToken u1 = token("u1");
+        when(tokenRepo.findInPartition(Partition.ALL)).thenReturn(List.of(u1));
+        var p = portfolio("60.004",
+                new CoinPortfolioEntryDTO("BTC", BigDecimal.ONE, BigDecimal.ZERO, new BigDecimal("60.004"), List.of()),
+                new CoinPortfolioEntryDTO("ETH", BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, List.of()));
+        when(binanceService.buildPortfolio(u1, "EUR", market)).thenReturn(p);
 
         scheduler.snapshotBinancePortfolio();
 
-        verify(txRepo).insertInvestmentSnapshot(eq("u1"), eq(new BigDecimal("100")), eq(77L), any(), anyString());
-        verify(txRepo, never()).updateInvestmentSnapshot(any(), any(), any(), any(), any());
+        verify(snapshots).saveAll(LocalDate.now(), List.of(
+                new Valuation("u1", new BigDecimal("60.00"), Map.of("BTC", new BigDecimal("60.00")))));
     }
 
     @Test
-    void snapshotBinancePortfolio_SnapshotExistsAndValueChanged_UpdatesSnapshot() {
-        when(tokenRepo.findAllUsersWithBinanceTokens()).thenReturn(List.of("u1"));
-        when(categoryRepo.findIdByName("Investments")).thenReturn(77L);
-
-        FullPortfolioDTO dto = mock(FullPortfolioDTO.class);
-        when(dto.getTotalEurValue()).thenReturn(new BigDecimal("105.50"));
+    void snapshotBinancePortfolio_ResponseNotSuccessOrDataNull_DoesNothing() {
+        BinanceToken u1 = token("u1");
+        when(tokenRepo.findInPartition(Partition.ALL)).thenReturn(List.of(u1));
         @SuppressWarnings("unchecked")
-        ServiceResponseDTO<FullPortfolioDTO> ok = mock(ServiceResponseDTO.class);
-        when(ok.isSuccess()).thenReturn(true);
-        when(ok.getData()).thenReturn(dto);
-        when(binanceService.getPortfolio("u1", "EUR")).thenReturn(ok);
-
-        when(txRepo.getLastSnapshotAmount("u1", 77L, "Binance Portfolio Snapshot")).thenReturn(new BigDecimal("100"));
-        when(txRepo.snapshotExists("u1", 77L, "Binance Portfolio Snapshot")).thenReturn(true);
+        ServiceResponseDTO<FullPortfolioDTO> bad = mock(ServiceResponseDTO.class);
+        when(bad.isSuccess()).thenReturn(false);
+        when(binanceService.buildPortfolio(u1, "EUR", market)).thenReturn(bad);
 
         scheduler.snapshotBinancePortfolio();
 
-        verify(txRepo).updateInvestmentSnapshot(eq("u1"), eq(77L), anyString(), eq(new BigDecimal("105.50")), any());
-        verify(txRepo, never()).insertInvestmentSnapshot(any(), any(), any(), any(), anyString());
+        verify(snapshots, never()).saveAll(any(), any());
     }
 
     @Test
-    void snapshotBinancePortfolio_ResponseNotSuccessOrDataNull_DoesNothing() {
-        when(tokenRepo.findAllUsersWithBinanceTokens()).thenReturn(List.of("u1"));
-        when(categoryRepo.findIdByName("Investments")).thenReturn(77L);
+    void snapshotBinancePortfolio_ManyUsersOneFails_ReadsMarketDataOnceAndWritesTheRest() {
+        List<BinanceToken> tokens = List.of(token("u1"), token("u2"), token("u3"), token("u4"));
+        when(tokenRepo.findInPartition(Partition.ALL)).thenReturn(tokens);
+        var p1 = portfolio("10");
+        var p3 = portfolio("30");
+        var p4 = portfolio("40");
+        when(binanceService.buildPortfolio(tokens.get(0), "EUR", market)).thenReturn(p1);
+        when(binanceService.buildPortfolio(tokens.get(1), "EUR", market)).thenThrow(new RuntimeException("418"));
+        when(binanceService.buildPortfolio(tokens.get(2), "EUR", market)).thenReturn(p3);
+        when(binanceService.buildPortfolio(tokens.get(3), "EUR", market)).thenReturn(p4);
+        double failuresBefore = failures();
+
+        scheduler.snapshotBinancePortfolio();
 
+        verify(marketData, times(1)).current();
         @SuppressWarnings("unchecked")
-        ServiceResponseDTO<FullPortfolioDTO> bad = mock(ServiceResponseDTO.class);
-        when(bad.isSuccess()).thenReturn(false);
-        when(binanceService.getPortfolio("u1", "EUR")).thenReturn(bad);
+        ArgumentCaptor<List<Valuation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(snapshots).saveAll(eq(LocalDate.now()), saved.capture());
+        assertThat(saved.getValue()).extracting(Valuation::userSub).containsExactlyInAnyOrder("u1", "u3", "u4");
+        assertThat(failures() - failuresBefore).isEqualTo(1.0);
+    }
+
+    @Test
+    void snapshotBinancePortfolio_TickerUnavailable_SkipsRun() {
+        when(tokenRepo.findInPartition(Partition.ALL)).thenReturn(List.of(token("u1")));
+        when(marketData.current()).thenThrow(new RuntimeException("down"));
 
         scheduler.snapshotBinancePortfolio();
 
-        verify(txRepo, never()).insertInvestmentSnapshot(any(), any(), any(), any(), anyString());
-        verify(txRepo, never()).updateInvestmentSnapshot(any(), any(), any(), any(), any());
+        verify(binanceService, never()).buildPortfolio(any(), any(), any());
+        verify(snapshots, never()).saveAll(any(), any());
     }
-}
 
+    private double failures() {
+        var counter = registry.find("binance.snapshot.failures").tag("stage", "user").counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static BinanceToken token(String userSub) {
+        BinanceToken t = new BinanceToken();
+        t.setUserSub(userSub);
+        return t;
+    }
+
+    private static ServiceResponseDTO<FullPortfolioDTO> portfolio(String eurValue, CoinPortfolioEntryDTO... coins) {
+        FullPortfolioDTO dto = mock(FullPortfolioDTO.class);
+        when(dto.getTotalEurValue()).thenReturn(new BigDecimal(eurValue));
+        when(dto.getMyCoins()).thenReturn(List.of(coins));
+        @SuppressWarnings("unchecked")
+        ServiceResponseDTO<FullPortfolioDTO> ok = mock(ServiceResponseDTO.class);
+        when(ok.isSuccess()).thenReturn(true);
+        when(ok.getData()).thenReturn(dto);
+        return ok;
+    }
+}
@@ -0,0 +1,113 @@
+package scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import model.helper.Partition;
+import org.junit.jupiter.api.Test;
+import repository.SchedulerLeaseRepository;
+import repository.SchedulerLeaseRepository.Grant;
+import utils.NoDbProfile;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestProfile(ClusterJobsTest.ThreePartitions.class)
+class ClusterJobsTest {
+
+    @Inject
+    ClusterJobs jobs;
+
+    @InjectMock
+    SchedulerLeaseRepository leases;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Test
+    void runOnce_LeaseHeldByAnotherPod_SkipsTask() {
+        double busyBefore = registry.counter("scheduler.lease.busy", "job", "solo").count();
+        when(leases.tryAcquire(eq("solo"), anyString(), any())).thenReturn(Optional.empty());
+        List<String> ran = new ArrayList<>();
+
+        boolean result = jobs.runOnce("solo", () -> ran.add("solo"));
+
+        assertThat(result).isFalse();
+        assertThat(ran).isEmpty();
+        assertThat(registry.counter("scheduler.lease.busy", "job", "solo").count()).isEqualTo(busyBefore + 1);
+        verify(leases, never()).release(anyString(), anyString(), any());
+    }
+
+    @Test
+    void runOnce_AbandonedLease_TakesOverCountsExpiryAndReleases() {
+        double expiredBefore = registry.counter("scheduler.lease.expired", "job", "solo").count();
+        when(leases.tryAcquire("solo", jobs.owner(), Duration.ofMinutes(30)))
+                .thenReturn(Optional.of(new Grant("crashed-pod", true)));
+        when(leases.release("solo", jobs.owner(), Duration.ofMinutes(5))).thenReturn(true);
+        List<String> ran = new ArrayList<>();
+
+        boolean result = jobs.runOnce("solo", () -> ran.add("solo"));
+
+        assertThat(result).isTrue();
+        assertThat(ran).containsExactly("solo");
+        assertThat(registry.counter("scheduler.lease.expired", "job", "solo").count())
+                .isEqualTo(expiredBefore + 1);
+        verify(leases).release("solo", jobs.owner(), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void runPartitioned_OnePartitionBusy_RunsTheOthersWithTheirOwnLease() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(new Grant(null, false)));
+        when(leases.tryAcquire(eq("split#1/3"), anyString(), any())).thenReturn(Optional.empty());
+        List<Partition> ran = new ArrayList<>();
+
+        int count = jobs.runPartitioned("split", ran::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(ran).containsExactlyInAnyOrder(new Partition(0, 3), new Partition(2, 3));
+        verify(leases).release(eq("split#0/3"), anyString(), eq(Duration.ofMinutes(1)));
+        verify(leases).release(eq("split#2/3"), anyString(), eq(Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void runPartitioned_TaskFails_ReleasesLeaseRunsRestAndRethrows() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(new Grant(null, false)));
+        List<Partition> ran = new ArrayList<>();
+
+        assertThatThrownBy(() -> jobs.runPartitioned("split", p -> {
+            ran.add(p);
+            if (p.index() == 1) throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(ran).hasSize(3);
+        verify(leases).release(eq("split#1/3"), anyString(), any());
+    }
+
+    public static class ThreePartitions extends NoDbProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            Map<String, String> overrides = new HashMap<>(super.getConfigOverrides());
+            overrides.put("scheduler.split.partitions", "3");
+            overrides.put("scheduler.split.lease.at-least", "PT1M");
+            return overrides;
+        }
+    }
+}
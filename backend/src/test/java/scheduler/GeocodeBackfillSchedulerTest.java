@@ -0,0 +1,111 @@
+package scheduler;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.SchedulerLeaseRepository;
+import repository.TransactionRepository;
+import repository.TransactionRepository.GeocodePending;
+import repository.UserDataVersionRepository;
+import service.LocationService;
+import utils.NoDbProfile;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyDouble;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.argThat;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestProfile(NoDbProfile.class)
+class GeocodeBackfillSchedulerTest {
+
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
+    private static final int MAX_ATTEMPTS = 6;
+
+    @Inject
+    GeocodeBackfillScheduler scheduler;
+
+    @InjectMock
+    TransactionRepository txRepo;
+    @InjectMock
+    LocationService locationService;
+    @InjectMock
+    SchedulerLeaseRepository leases;
+
+    @BeforeEach
+    void setUp() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(new SchedulerLeaseRepository.Grant(null, false)));
+        when(txRepo.countGeocodeBacklog(isNull(), anyInt()))
+                .thenReturn(new TransactionRepository.GeocodeBacklog(0, 0));
+    }
+
+    @Test
+    void backfillLocationNames_MixedOutcomes_ResolvesAndSchedulesRetry() {
+        var ok = pending(1L, "45.8", 0);
+        var flaky = pending(2L, "46.1", 1);
+        when(txRepo.findGeocodePending(any(), eq(MAX_ATTEMPTS), eq(50)))
+                .thenReturn(List.of(ok, flaky));
+        when(locationService.getLocationName(45.8, 16.0)).thenReturn("Zagreb");
+        when(locationService.getLocationName(46.1, 16.0)).thenThrow(new RuntimeException("429"));
+
+        LocalDateTime before = LocalDateTime.now(ZoneOffset.UTC);
+        scheduler.backfillLocationNames();
+
+        verify(txRepo).resolveGeocode(ok, "Zagreb");
+        verify(txRepo).deferGeocode(eq(2L), eq(2),
+                argThat(next -> !next.isBefore(before.plus(scheduler.backoff(2)))));
+    }
+
+    @Test
+    void backfillLocationNames_LeaseHeldByAnotherPod_PollsNothing() {
+        when(leases.tryAcquire(eq(GeocodeBackfillScheduler.JOB), anyString(), any())).thenReturn(Optional.empty());
+
+        scheduler.backfillLocationNames();
+
+        verify(txRepo, never()).findGeocodePending(any(), anyInt(), anyInt());
+        verify(locationService, never()).getLocationName(anyDouble(), anyDouble());
+    }
+
+    @Test
+    void backfillLocationNames_LastAttemptFails_StopsRetrying() {
+        var doomed = pending(3L, "45.8", MAX_ATTEMPTS - 1);
+        when(txRepo.findGeocodePending(any(), anyInt(), anyInt())).thenReturn(List.of(doomed));
+        when(locationService.getLocationName(45.8, 16.0)).thenThrow(new RuntimeException("boom"));
+
+        scheduler.backfillLocationNames();
+
+        verify(txRepo).deferGeocode(3L, MAX_ATTEMPTS, null);
+        verify(txRepo, never()).resolveGeocode(any(), any());
+    }
+
+    @Test
+    void backoff_DoublesUpToCap() {
+        assertThat(scheduler.backoff(1)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(scheduler.backoff(3)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(scheduler.backoff(30)).isEqualTo(Duration.ofHours(6));
+    }
+
+    private static GeocodePending pending(Long id, String lat, int attempts) {
+        return new GeocodePending(id, "u", new BigDecimal(lat), new BigDecimal("16.0"), attempts);
+    }
+}
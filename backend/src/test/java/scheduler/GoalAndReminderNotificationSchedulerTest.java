@@ -1,28 +1,36 @@
 package scheduler;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import io.quarkus.test.junit.mockito.InjectSpy;
-import model.entity.PlannedTx;
-import model.entity.SavingsGoal;
+import jakarta.inject.Inject;
+import model.helper.Partition;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import repository.BudgetRepository;
-import repository.CategoryRepository;
 import repository.PlannedTxRepository;
 import repository.SavingsGoalRepository;
-import repository.TransactionRepository;
+import repository.SchedulerLeaseRepository;
 import service.NotificationService;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,38 +42,28 @@ class GoalAndReminderNotificationSchedulerTest {
     @InjectSpy
     GoalAndReminderNotificationScheduler sch;
 
-    @InjectMock
-    TransactionRepository txRepo;
     @InjectMock
     SavingsGoalRepository goalRepo;
     @InjectMock
     PlannedTxRepository plannedRepo;
     @InjectMock
-    CategoryRepository categoryRepo;
-    @InjectMock
     NotificationService notifier;
     @InjectMock
-    BudgetRepository budgetRepo;
-
-    @Test
-    void dailyGoalAndReminderNotifications_WithTwoBudgetUsers_QueriesPlannedTxForEachUser() {
-        when(budgetRepo.findAllUsersWithBudgets()).thenReturn(List.of("u1", "u2"));
-        when(goalRepo.findByUser(anyString())).thenReturn(null);
-        when(plannedRepo.findByUserAndDueBetween(anyString(), any(), any())).thenReturn(List.of());
+    SchedulerLeaseRepository leases;
 
-        sch.dailyGoalAndReminderNotifications();
+    @Inject
+    MeterRegistry registry;
 
-        verify(plannedRepo, times(2)).findByUserAndDueBetween(anyString(), any(), any());
+    @BeforeEach
+    void setUp() {
+        when(leases.tryAcquire(anyString(), anyString(), any()))
+                .thenReturn(Optional.of(new SchedulerLeaseRepository.Grant(null, false)));
     }
 
     @Test
     void dailyGoalAndReminderNotifications_WithSavingsGoalBehindSchedule_SendsGoalRiskNotification() {
-        when(budgetRepo.findAllUsersWithBudgets()).thenReturn(List.of("u"));
-        var goal = new SavingsGoal();
-        goal.setTargetAmt(new BigDecimal("1000"));
-        goal.setTargetDate(LocalDate.now().plusDays(10));
-        when(goalRepo.findByUser("u")).thenReturn(goal);
-        when(txRepo.sumByCategory("u", "Savings")).thenReturn(new BigDecimal("100"));
+        when(goalRepo.findUsersWithGoalAtRisk(any(), eq("Savings"), any(), eq(Partition.ALL), eq(""), anyInt()))
+                .thenReturn(List.of("u"));
 
         sch.dailyGoalAndReminderNotifications();
 
@@ -74,21 +72,39 @@ class GoalAndReminderNotificationSchedulerTest {
 
     @Test
     void dailyGoalAndReminderNotifications_WithPlannedTxDueIn1To3Days_SendsUpcomingPaymentNotification() {
-        when(budgetRepo.findAllUsersWithBudgets()).thenReturn(List.of("u"));
-        when(goalRepo.findByUser("u")).thenReturn(null);
-
-        var p = new PlannedTx();
-        p.setUserSub("u");
-        p.setCategoryId(7L);
-        p.setTitle("Internet bill");
-        p.setDueDate(LocalDate.now().plusDays(2));
-        when(plannedRepo.findByUserAndDueBetween(eq("u"), any(), any()))
-                .thenReturn(List.of(p));
-        when(categoryRepo.findCategoryNameById(7L)).thenReturn("Utilities");
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(plannedRepo.findUpcoming(today.plusDays(1), today.plusDays(3), Partition.ALL, 0L, 500))
+                .thenReturn(List.of(new PlannedTxRepository.Upcoming(
+                        3L, "u", "Internet bill", today.plusDays(2), "Utilities")));
 
         sch.dailyGoalAndReminderNotifications();
 
         verify(notifier).sendToExternalId(eq("u"), contains("Upcoming Planned Payment"),
                 contains("Utilities"));
     }
+
+    @Test
+    void dailyGoalAndReminderNotifications_FullChunk_ContinuesAfterLastKey() {
+        List<String> first = IntStream.range(0, 500).mapToObj(i -> String.format("u%03d", i)).toList();
+        when(goalRepo.findUsersWithGoalAtRisk(any(), anyString(), any(BigDecimal.class), any(), eq(""), eq(500)))
+                .thenReturn(first);
+        when(goalRepo.findUsersWithGoalAtRisk(any(), anyString(), any(BigDecimal.class), any(), eq("u499"), eq(500)))
+                .thenReturn(List.of("u500"));
+
+        sch.dailyGoalAndReminderNotifications();
+
+        verify(notifier, times(501)).sendToExternalId(anyString(), contains("Savings Goal"), anyString());
+        verify(goalRepo, never()).findUsersWithGoalAtRisk(any(), anyString(), any(), any(), eq("u500"), anyInt());
+    }
+
+    @Test
+    void dailyGoalAndReminderNotifications_QueryFails_CountsFailure() {
+        double failuresBefore = registry.counter("reminders.failures").count();
+        when(plannedRepo.findUpcoming(any(), any(), any(), anyLong(), anyInt()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        assertThatThrownBy(() -> sch.dailyGoalAndReminderNotifications()).isInstanceOf(IllegalStateException.class);
+
+        assertThat(registry.counter("reminders.failures").count()).isEqualTo(failuresBefore + 1);
+    }
 }
@@ -0,0 +1,135 @@
+package scheduler;
+
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import repository.JobCheckpointRepository;
+import repository.PlannedTxRepository;
+import repository.PlannedTxRepository.Due;
+import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
+import repository.UserDataVersionRepository;
+import utils.NoDbProfile;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestProfile(NoDbProfile.class)
+class PlannedTxSchedulerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 10);
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    @Inject
+    PlannedTxScheduler scheduler;
+
+    @InjectMock
+    PlannedTxRepository plannedRepo;
+    @InjectMock
+    TransactionRepository txRepo;
+    @InjectMock
+    TxMonthlyRollupRepository rollups;
+    @InjectMock
+    JobCheckpointRepository checkpoints;
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
+    @BeforeEach
+    void setUp() {
+        when(checkpoints.lock(PlannedTxScheduler.JOB)).thenReturn(YESTERDAY);
+        when(plannedRepo.claimForBooking(anyList(), eq(TODAY))).thenAnswer(inv -> inv.getArgument(0));
+    }
+
+    @Test
+    void book_FullChunkThenRest_BooksAllInChunksAndAdvancesCheckpoint() {
+        List<Due> first = LongStream.rangeClosed(1, 200).mapToObj(id -> due(id, "u" + id % 7)).toList();
+        when(plannedRepo.findUnbookedDue(YESTERDAY, TODAY, 0L, 200)).thenReturn(first);
+        when(plannedRepo.findUnbookedDue(YESTERDAY, TODAY, 200L, 200)).thenReturn(List.of(due(201, "u1")));
+
+        var result = scheduler.book(TODAY);
+
+        assertThat(result.booked()).isEqualTo(201);
+        assertThat(result.failed()).isZero();
+        verify(txRepo).insertAll(argThat(txs -> txs.size() == 200));
+        verify(txRepo).insertAll(argThat(txs -> txs.size() == 1));
+        verify(checkpoints).advance(PlannedTxScheduler.JOB, TODAY);
+    }
+
+    @Test
+    void book_ChunkFails_RetriesRowByRowAndKeepsCheckpointBeforeBadRow() {
+        LocalDate since = TODAY.minusDays(5);
+        when(checkpoints.lock(PlannedTxScheduler.JOB)).thenReturn(since);
+        List<Due> rows = List.of(due(1, "u", TODAY.minusDays(4)), due(2, "bad", TODAY.minusDays(2)),
+                due(3, "bad", TODAY.minusDays(1)));
+        when(plannedRepo.findUnbookedDue(since, TODAY, 0L, 200)).thenReturn(rows);
+        doThrow(new IllegalStateException("constraint"))
+                .when(txRepo).insertAll(argThat(txs -> txs.stream().anyMatch(t -> "bad".equals(t.getUserSub()))));
+
+        var result = scheduler.book(TODAY);
+
+        assertThat(result.booked()).isEqualTo(1);
+        assertThat(result.failed()).isEqualTo(2);
+        verify(txRepo).insertAll(argThat(txs -> txs.size() == 1 && "u".equals(txs.get(0).getUserSub())));
+        verify(checkpoints).advance(PlannedTxScheduler.JOB, TODAY.minusDays(3));
+    }
+
+    @Test
+    void book_RowsAlreadyClaimedElsewhere_InsertsNothing() {
+        List<Due> rows = List.of(due(1, "u"));
+        when(plannedRepo.findUnbookedDue(YESTERDAY, TODAY, 0L, 200)).thenReturn(rows);
+        when(plannedRepo.claimForBooking(rows, TODAY)).thenReturn(List.of());
+
+        var result = scheduler.book(TODAY);
+
+        assertThat(result.booked()).isZero();
+        verify(txRepo, never()).insertAll(argThat(txs -> !txs.isEmpty()));
+        verify(dataVersions, never()).bump(any());
+    }
+
+    @Test
+    void book_AlreadyRanToday_BooksNothing() {
+        when(checkpoints.lock(PlannedTxScheduler.JOB)).thenReturn(TODAY);
+        when(plannedRepo.findUnbookedDue(TODAY, TODAY, 0L, 200)).thenReturn(List.of());
+
+        var result = scheduler.book(TODAY);
+
+        assertThat(result.booked()).isZero();
+        verify(plannedRepo, times(1)).findUnbookedDue(any(), any(), eq(0L), eq(200));
+    }
+
+    @Test
+    void book_UnbookedRowsBeforeCheckpoint_ReportsThemAsPassed() {
+        when(plannedRepo.countUnbookedThrough(YESTERDAY)).thenReturn(3L);
+        when(plannedRepo.findUnbookedDue(YESTERDAY, TODAY, 0L, 200)).thenReturn(List.of());
+
+        var result = scheduler.book(TODAY);
+
+        assertThat(result.passed()).isEqualTo(3);
+        assertThat(result.booked()).isZero();
+    }
+
+    private static Due due(long id, String userSub) {
+        return due(id, userSub, TODAY);
+    }
+
+    private static Due due(long id, String userSub, LocalDate dueDate) {
+        return new Due(id, userSub, "E", new BigDecimal("12.00"), 3L, dueDate);
+    }
+}
@@ -7,13 +7,21 @@ import io.quarkus.test.junit.TestProfile;
 import io.quarkus.test.junit.mockito.InjectSpy;
 import mapper.BinanceTokenMapper;
 import model.entity.BinanceToken;
+import model.external.BinanceAccountDTO;
 import model.external.BinanceTokenDTO;
+import model.external.TickerPriceDTO;
+import model.external.TradeDTO;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.junit.jupiter.api.Test;
 import repository.BinanceTokenRepository;
+import repository.PortfolioSnapshotRepository;
 import utils.NoDbProfile;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -30,6 +38,8 @@ class BinanceServiceTest {
     @InjectMock @RestClient BinanceClient client;
     @InjectMock BinanceTokenRepository tokenRepo;
     @InjectMock BinanceTokenMapper mapper;
+    @InjectMock MarketDataService marketData;
+    @InjectMock PortfolioSnapshotRepository snapshotRepo;
 
     @Test
     void saveCredentials_NoExistingToken_CreatesNewToken() {
@@ -109,7 +119,7 @@ class BinanceServiceTest {
     void getPortfolio_MarketDataFetchFails_ReturnsFailure() {
         var token = new BinanceToken(); token.setApiKey("k"); token.setSecretKey("s");
         when(tokenRepo.findByUserSub("u")).thenReturn(Optional.of(token));
-        when(client.get24hrTicker()).thenThrow(new RuntimeException("boom"));
+        when(marketData.current()).thenThrow(new RuntimeException("boom"));
 
         var res = svc.getPortfolio("u", "EUR");
 
@@ -120,7 +130,8 @@ class BinanceServiceTest {
     void getPortfolio_AccountFetchFails_ReturnsFailure() {
         var token = new BinanceToken(); token.setApiKey("k"); token.setSecretKey("s");
         when(tokenRepo.findByUserSub("u")).thenReturn(Optional.of(token));
-        when(client.get24hrTicker()).thenReturn(java.util.List.of());
+        when(marketData.current()).thenReturn(new MarketDataService.Snapshot(
+                java.util.Map.of(), java.util.List.of(), java.math.BigDecimal.ONE, java.time.Instant.now()));
         when(client.getAccount(anyString(), anyInt(), anyLong(), anyString()))
                 .thenThrow(new RuntimeException("nope"));
 
@@ -128,4 +139,91 @@ class BinanceServiceTest {
 
         assertThat(res.isSuccess()).isFalse();
     }
+
+    @Test
+    void buildPortfolio_OneTradeCallFailsAnotherHangs_ReturnsPartialTrades() {
+        var token = new BinanceToken(); token.setApiKey("k"); token.setSecretKey("s");
+        var market = new MarketDataService.Snapshot(
+                java.util.Map.of(
+                        "BTCUSDT", ticker("BTCUSDT", "60000"),
+                        "ETHUSDT", ticker("ETHUSDT", "3000"),
+                        "SOLUSDT", ticker("SOLUSDT", "150")),
+                java.util.List.of(ticker("BTCUSDT", "60000"), ticker("ETHUSDT", "3000"), ticker("SOLUSDT", "150")),
+                java.math.BigDecimal.ONE, java.time.Instant.now());
+
+        var account = new BinanceAccountDTO();
+        var btc = new BinanceAccountDTO.BalanceDTO();
+        btc.setAsset("BTC"); btc.setFree("0.5"); btc.setLocked("0");
+        account.setBalances(java.util.List.of(btc));
+        when(client.getAccount(anyString(), anyLong(), anyLong(), anyString())).thenReturn(account);
+
+        var trade = new TradeDTO(); trade.symbol = "BTCUSDT";
+        when(client.getMyTrades(anyString(), eq("BTCUSDT"), anyInt(), anyLong(), anyLong(), anyString()))
+                .thenReturn(java.util.List.of(trade));
+        when(client.getMyTrades(anyString(), eq("ETHUSDT"), anyInt(), anyLong(), anyLong(), anyString()))
+                .thenThrow(new RuntimeException("429"));
+        when(client.getMyTrades(anyString(), eq("SOLUSDT"), anyInt(), anyLong(), anyLong(), anyString()))
+                .thenAnswer(inv -> {
+                    Thread.sleep(30_000);
+                    return java.util.List.of();
+                });
+
+        long start = System.nanoTime();
+        var res = svc.buildPortfolio(token, "EUR", market);
+        long tookMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(res.isSuccess()).isTrue();
+        assertThat(res.getMessage()).contains("2 coin(s)");
+        assertThat(tookMs).isLessThan(10_000);
+        var coins = res.getData().getMyCoins();
+        assertThat(coins).extracting(c -> c.getSymbol()).containsExactly("BTC", "ETH", "SOL");
+        assertThat(coins.get(0).getTrades()).hasSize(1);
+        assertThat(coins.get(0).getEurValue()).isEqualByComparingTo("30000");
+        assertThat(coins.get(1).getTrades()).isEmpty();
+        assertThat(coins.get(2).getTrades()).isEmpty();
+    }
+
+    private static TickerPriceDTO ticker(String symbol, String price) {
+        var t = new TickerPriceDTO();
+        t.symbol = symbol;
+        t.lastPrice = new java.math.BigDecimal(price);
+        t.highPrice = t.lastPrice;
+        t.lowPrice = t.lastPrice;
+        return t;
+    }
+
+    @Test
+    void getPortfolioHistory_RangeLongerThanPoints_DownsamplesIntoEqualBuckets() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 3, 31);
+        when(snapshotRepo.findHistory("u", from, to, 3)).thenReturn(List.of(
+                new PortfolioSnapshotRepository.Point(LocalDate.of(2026, 1, 3), new BigDecimal("50.00"),
+                        Map.of("BTC", new BigDecimal("50.00")))));
+
+        var res = svc.getPortfolioHistory("u", "2026-01-01", "2026-03-31", 30);
+
+        assertThat(res.isSuccess()).isTrue();
+        assertThat(res.getData().getStepDays()).isEqualTo(3);
+        assertThat(res.getData().getPoints()).singleElement()
+                .satisfies(p -> assertThat(p.getAssetEurValues()).containsEntry("BTC", new BigDecimal("50.00")));
+    }
+
+    @Test
+    void getPortfolioHistory_NoRange_ReadsDefaultDaysDaily() {
+        LocalDate today = LocalDate.now();
+        when(snapshotRepo.findHistory(eq("u"), any(), any(), anyInt())).thenReturn(List.of());
+
+        var res = svc.getPortfolioHistory("u", null, null, 90);
+
+        assertThat(res.isSuccess()).isTrue();
+        verify(snapshotRepo).findHistory("u", today.minusDays(89), today, 1);
+    }
+
+    @Test
+    void getPortfolioHistory_FromAfterToOrTooManyPoints_ReturnsBadRequest() {
+        assertThat(svc.getPortfolioHistory("u", "2026-02-01", "2026-01-01", 10).getStatusCode()).isEqualTo(400);
+        assertThat(svc.getPortfolioHistory("u", "2026-01-01", "2026-02-01", 10_000).getStatusCode()).isEqualTo(400);
+        assertThat(svc.getPortfolioHistory("u", "yesterday", null, 10).getStatusCode()).isEqualTo(400);
+        verifyNoInteractions(snapshotRepo);
+    }
 }
@@ -12,6 +12,7 @@ import model.home.BudgetResponseDTO;
 import model.response.ServiceResponseDTO;
 import org.junit.jupiter.api.Test;
 import repository.BudgetRepository;
+import repository.UserDataVersionRepository;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
@@ -30,6 +31,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfile.class)
 class BudgetServiceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectSpy
     BudgetService svc;
 
@@ -5,15 +5,20 @@ import jakarta.inject.Inject;
 import jakarta.transaction.Transactional;
 import model.entity.Category;
 import model.entity.Transaction;
+import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
+import model.tracking.CategoryBreakdownDTO;
 import model.tracking.DashboardSummaryDTO;
+import model.tracking.LocationDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import repository.CategoryRepository;
 import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
+import java.time.YearMonth;
 import java.time.ZoneOffset;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -27,11 +32,18 @@ class DashboardServiceIT {
     TransactionRepository txRepo;
     @Inject
     CategoryRepository categoryRepo;
+    @Inject
+    TxMonthlyRollupRepository rollups;
+    @Inject
+    AnalyticsCache analytics;
+    @Inject
+    TransactionService txService;
 
     @BeforeEach
     @Transactional
     void clean() {
         txRepo.deleteAll();
+        analytics.invalidateAll();
     }
 
     @Test
@@ -55,4 +67,36 @@ class DashboardServiceIT {
 
         assertThat(res.isSuccess()).isTrue();
     }
+
+    @Test
+    @Transactional
+    void bundle_matches_separate_endpoints() {
+        Category cat = new Category();
+        cat.setName("Bundle IT");
+        categoryRepo.persist(cat);
+        Long catId = cat.getId();
+
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        Transaction coffee = new Transaction(
+                null, "u2", "E", new BigDecimal("4.50"), catId, now,
+                new BigDecimal("45.800000"), new BigDecimal("15.970000"), null, "Zagreb");
+        txRepo.persist(coffee);
+        rollups.add(coffee);
+        Transaction salary = new Transaction(
+                null, "u2", "I", new BigDecimal("1000"), catId, now.minusDays(1), null, null, null, null);
+        txRepo.persist(salary);
+        rollups.add(salary);
+        txRepo.flush();
+
+        var bundle = service.bundle("u2", 5, 7, YearMonth.now(ZoneOffset.UTC).toString(), 3).getData();
+
+        assertThat(bundle.summary()).isEqualTo(service.summary("u2").getData());
+        assertThat(bundle.recent()).extracting(TxResponseDTO::amount)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("4.50"), new BigDecimal("1000"));
+        assertThat(bundle.daily()).isEqualTo(txService.findDailyExpenses("u2", 7).getData());
+        assertThat(bundle.daily()).hasSize(7);
+        assertThat(bundle.topLocations()).extracting(LocationDTO::label).containsExactly("Zagreb");
+        assertThat(bundle.categoryBreakdown()).extracting(CategoryBreakdownDTO::category).containsExactly("Bundle IT");
+    }
 }
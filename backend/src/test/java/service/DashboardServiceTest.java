@@ -4,34 +4,57 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
-import jakarta.persistence.Tuple;
+import mapper.TransactionMapper;
+import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
+import model.tracking.CategoryBreakdownDTO;
+import model.tracking.DashboardBundleDTO;
 import model.tracking.DashboardSummaryDTO;
+import model.tracking.LocationDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import repository.TransactionRepository;
+import repository.UserDataVersionRepository;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
 @TestProfile(NoDbProfile.class)
 class DashboardServiceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
     @InjectMock
     TransactionRepository txRepo;
+    @InjectMock
+    TransactionMapper mapper;
     @Inject
     DashboardService svc;
+    @Inject
+    AnalyticsCache analytics;
+
+    @BeforeEach
+    void clearCache() {
+        analytics.invalidateAll();
+    }
 
     @Test
-    void summary_NullsFromRepository_ReturnsZeros() {
-        Tuple t = mock(Tuple.class);
-        when(t.get("totalExpenses", BigDecimal.class)).thenReturn(null);
-        when(t.get("totalIncome", BigDecimal.class)).thenReturn(null);
-        when(txRepo.findTotalExpensesAndIncome("u")).thenReturn(t);
+    void summary_NoTransactions_ReturnsZeros() {
+        when(txRepo.findTotals("u"))
+                .thenReturn(new TransactionRepository.Totals(BigDecimal.ZERO, BigDecimal.ZERO));
 
         ServiceResponseDTO<DashboardSummaryDTO> res = svc.summary("u");
 
@@ -43,10 +66,8 @@ class DashboardServiceTest {
 
     @Test
     void summary_RepositoryReturnsNumbers_ComputesNet() {
-        Tuple t = mock(Tuple.class);
-        when(t.get("totalExpenses", BigDecimal.class)).thenReturn(new BigDecimal("25"));
-        when(t.get("totalIncome", BigDecimal.class)).thenReturn(new BigDecimal("100"));
-        when(txRepo.findTotalExpensesAndIncome("u")).thenReturn(t);
+        when(txRepo.findTotals("u"))
+                .thenReturn(new TransactionRepository.Totals(new BigDecimal("100"), new BigDecimal("25")));
 
         var res = svc.summary("u");
 
@@ -55,4 +76,64 @@ class DashboardServiceTest {
         assertThat(res.getData().totalIncome()).isEqualByComparingTo("100");
         assertThat(res.getData().budgetRemaining()).isEqualByComparingTo("75");
     }
+
+    @Test
+    void bundle_RepositoryRows_AssemblesEveryHomeScreenSection() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        var tx = new TransactionRepository.TxView(7L, "E", new BigDecimal("12"), 1L, null, "Zagreb", null);
+        when(txRepo.findDashboardTotals("u", YearMonth.of(2025, 3))).thenReturn(
+                new TransactionRepository.DashboardTotals(
+                        new TransactionRepository.Totals(new BigDecimal("100"), new BigDecimal("40")),
+                        List.of(new TransactionRepository.CategorySum("Food", new BigDecimal("30")))));
+        when(txRepo.findDashboardActivity(eq("u"), eq(5), any(), any(), eq(3))).thenReturn(
+                new TransactionRepository.DashboardActivity(
+                        List.of(tx),
+                        List.of(new TransactionRepository.DailySum(today.minusDays(1), new BigDecimal("-12"))),
+                        List.of(new TransactionRepository.LocationSum(
+                                new BigDecimal("45.8"), new BigDecimal("16.0"), "Zagreb", new BigDecimal("12")))));
+        when(mapper.viewToResponse(tx))
+                .thenReturn(new TxResponseDTO(7L, "E", new BigDecimal("12"), 1L, null, "Zagreb", null));
+
+        ServiceResponseDTO<DashboardBundleDTO> res = svc.bundle("u", 5, 7, "2025-03", 3);
+
+        assertThat(res.isSuccess()).isTrue();
+        var b = res.getData();
+        assertThat(b.summary().budgetRemaining()).isEqualByComparingTo("60");
+        assertThat(b.recent()).extracting(TxResponseDTO::id).containsExactly(7L);
+        assertThat(b.daily()).hasSize(7)
+                .containsEntry(today.minusDays(1).toString(), new BigDecimal("-12"))
+                .containsEntry(today.toString(), BigDecimal.ZERO);
+        assertThat(b.month()).isEqualTo("2025-03");
+        assertThat(b.categoryBreakdown()).containsExactly(new CategoryBreakdownDTO("Food", new BigDecimal("30")));
+        assertThat(b.topLocations()).extracting(LocationDTO::label).containsExactly("Zagreb");
+    }
+
+    @Test
+    void bundle_NonPositiveLimit_ReturnsBadRequest() {
+        assertThat(svc.bundle("u", -1, 7, "2025-03", 3).getStatusCode()).isEqualTo(400);
+        assertThat(svc.bundle("u", 5, 7, "2025-03", 0).getStatusCode()).isEqualTo(400);
+        verify(txRepo, never()).findDashboardActivity(any(), anyInt(), any(), any(), anyInt());
+    }
+
+    @Test
+    void bundle_HugeLimits_AreCapped() {
+        when(txRepo.findDashboardTotals(any(), any())).thenReturn(new TransactionRepository.DashboardTotals(
+                new TransactionRepository.Totals(BigDecimal.ZERO, BigDecimal.ZERO), List.of()));
+        when(txRepo.findDashboardActivity(any(), anyInt(), any(), any(), anyInt()))
+                .thenReturn(new TransactionRepository.DashboardActivity(List.of(), List.of(), List.of()));
+
+        svc.bundle("u", 1_000_000, 7, "2025-03", 1_000_000);
+
+        verify(txRepo).findDashboardActivity(eq("u"), eq(TransactionService.MAX_RECENT), any(), any(),
+                eq(TransactionService.MAX_LOCATIONS));
+    }
+
+    @Test
+    void bundle_InvalidMonth_ReturnsBadRequest() {
+        var res = svc.bundle("u", 5, 7, "March", 3);
+
+        assertThat(res.isSuccess()).isFalse();
+        assertThat(res.getStatusCode()).isEqualTo(400);
+        verify(txRepo, never()).findDashboardActivity(any(), anyInt(), any(), any(), anyInt());
+    }
 }
@@ -1,19 +1,27 @@
 package service;
 
 import client.GeocodeClient;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
 import model.response.client.ReverseGeocodeResponse;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import repository.GeocodeCellRepository;
 import utils.NoDbProfile;
 
+import java.util.Optional;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.anyDouble;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,9 +33,21 @@ class LocationServiceTest {
     @RestClient
     GeocodeClient geocode;
 
+    @InjectMock
+    GeocodeCellRepository cells;
+
     @Inject
     LocationService svc;
 
+    @Inject
+    @CacheName("location-service")
+    Cache cache;
+
+    @BeforeEach
+    void clearCache() {
+        cache.invalidateAll().await().indefinitely();
+    }
+
     @Test
     void getLocationName_DisplayNamePresent_ReturnsDisplayName() {
         var resp = mock(ReverseGeocodeResponse.class);
@@ -36,6 +56,7 @@ class LocationServiceTest {
 
         assertThat(svc.getLocationName(1.0, 2.0)).isEqualTo("Main Square");
         verify(geocode).reverse(anyDouble(), anyDouble(), anyString());
+        verify(cells).upsert(svc.cellOf(1.0, 2.0), "Main Square");
     }
 
     @Test
@@ -46,5 +67,32 @@ class LocationServiceTest {
 
         assertThat(svc.getLocationName(3.0, 4.0)).isEqualTo("3.000000,4.000000");
         verify(geocode).reverse(anyDouble(), anyDouble(), anyString());
+        verify(cells, never()).upsert(anyString(), anyString());
+    }
+
+    @Test
+    void getLocationName_NearbyPointsInSameCell_CallsGeocoderOnce() {
+        var resp = mock(ReverseGeocodeResponse.class);
+        when(resp.display_name()).thenReturn("Ilica 1");
+        when(geocode.reverse(anyDouble(), anyDouble(), anyString())).thenReturn(resp);
+
+        assertThat(svc.getLocationName(45.813100, 15.977000)).isEqualTo("Ilica 1");
+        assertThat(svc.getLocationName(45.813105, 15.977008)).isEqualTo("Ilica 1");
+
+        verify(geocode, times(1)).reverse(anyDouble(), anyDouble(), anyString());
+        assertThat(svc.cachedName(45.813102, 15.977004)).contains("Ilica 1");
+    }
+
+    @Test
+    void getLocationName_CellStoredInDatabase_SkipsGeocoder() {
+        when(cells.findName(svc.cellOf(45.8, 16.0))).thenReturn(Optional.of("Stored street"));
+
+        assertThat(svc.getLocationName(45.8, 16.0)).isEqualTo("Stored street");
+        verify(geocode, never()).reverse(anyDouble(), anyDouble(), anyString());
+    }
+
+    @Test
+    void cellOf_KnownCoordinate_MatchesReferenceGeohash() {
+        assertThat(svc.cellOf(57.64911, 10.40744)).isEqualTo("u4pruyd");
     }
 }
@@ -0,0 +1,96 @@
+package service;
+
+import client.BinanceClient;
+import io.quarkus.test.InjectMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.inject.Inject;
+import model.external.TickerPriceDTO;
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.NoDbProfile;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@QuarkusTest
+@TestProfile(NoDbProfile.class)
+class MarketDataServiceTest {
+
+    @Inject
+    MarketDataService svc;
+
+    @InjectMock
+    @RestClient
+    BinanceClient client;
+
+    @BeforeEach
+    void reset() {
+        svc.install(null);
+    }
+
+    @Test
+    void refresh_Tickers_IndexesBySymbolAndPicksTopUsdtPairs() {
+        when(client.get24hrTicker()).thenReturn(List.of(
+                ticker("BTCUSDT", "60000"), ticker("ETHUSDT", "3000"),
+                ticker("ETHBTC", "0.05"), ticker("EURUSDT", "1.25")));
+
+        var snap = svc.refresh();
+
+        assertThat(snap.lastPrice("ETHBTC")).isEqualByComparingTo("0.05");
+        assertThat(snap.lastPrice("NOPE")).isEqualByComparingTo("0");
+        assertThat(snap.topUsdt()).extracting(t -> t.symbol)
+                .containsExactly("BTCUSDT", "ETHUSDT", "EURUSDT");
+        assertThat(snap.usdtToEur()).isEqualByComparingTo("0.8");
+        assertThatThrownBy(() -> snap.bySymbol().put("X", null))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void current_FreshSnapshot_ServedWithoutRefetching() {
+        when(client.get24hrTicker()).thenReturn(List.of(ticker("BTCUSDT", "60000")));
+
+        var first = svc.current();
+        var second = svc.current();
+
+        assertThat(second).isSameAs(first);
+        verify(client, times(1)).get24hrTicker();
+    }
+
+    @Test
+    void current_StaleSnapshotAndRefreshFails_ReturnsStaleSnapshot() {
+        var old = new MarketDataService.Snapshot(Map.of(), List.of(), BigDecimal.ONE,
+                Instant.now().minus(Duration.ofHours(1)));
+        svc.install(old);
+        when(client.get24hrTicker()).thenThrow(new RuntimeException("418"));
+
+        var snap = svc.current();
+
+        assertThat(snap).isSameAs(old);
+        assertThat(svc.isStale(snap)).isTrue();
+    }
+
+    @Test
+    void current_NeverLoadedAndRefreshFails_Throws() {
+        when(client.get24hrTicker()).thenThrow(new RuntimeException("down"));
+
+        assertThatThrownBy(() -> svc.current()).hasMessageContaining("down");
+    }
+
+    private static TickerPriceDTO ticker(String symbol, String price) {
+        TickerPriceDTO t = new TickerPriceDTO();
+        t.symbol = symbol;
+        t.lastPrice = new BigDecimal(price);
+        return t;
+    }
+}
@@ -14,6 +14,7 @@ import model.transaction.PlannedTxRequestDTO;
 import model.transaction.PlannedTxResponseDTO;
 import org.junit.jupiter.api.Test;
 import repository.PlannedTxRepository;
+import repository.UserDataVersionRepository;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
@@ -32,6 +33,9 @@ import static org.mockito.Mockito.when;
 @TestProfile(NoDbProfile.class)
 class PlannedTxServiceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @Inject
     PlannedTxService svc;
     @InjectMock
@@ -40,13 +44,15 @@ class PlannedTxServiceTest {
     PlannedTxMapper map;
 
     @Test
-    void list_WithFilters_MapsEntitiesToDTOs() {
+    void list_WithFilters_ProjectsRowsToDTOs() {
         PanacheQuery<PlannedTx> q = mockPlannedQuery();
+        PanacheQuery<PlannedTxRepository.PlannedTxView> views = mockViewQuery();
         when(repo.findWithFilters(any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(q);
+        when(q.project(PlannedTxRepository.PlannedTxView.class)).thenReturn(views);
 
-        PlannedTx e = new PlannedTx();
-        when(q.list()).thenReturn(List.of(e));
+        var e = view(1L);
+        when(views.list()).thenReturn(List.of(e));
 
         PlannedTxResponseDTO dto = new PlannedTxResponseDTO();
         dto.id = 1L;
@@ -57,7 +63,7 @@ class PlannedTxServiceTest {
         dto.dueDate = LocalDate.now();
         dto.autoBook = true;
 
-        when(map.entityToResponse(e)).thenReturn(dto);
+        when(map.viewToResponse(e)).thenReturn(dto);
 
         ServiceResponseDTO<List<PlannedTxResponseDTO>> res =
                 svc.list("u", null, null, null, null, null, null, null);
@@ -70,14 +76,16 @@ class PlannedTxServiceTest {
     @Test
     void page_WithFilters_CountsAndPages() {
         PanacheQuery<PlannedTx> q = mockPlannedQuery();
+        PanacheQuery<PlannedTxRepository.PlannedTxView> views = mockViewQuery();
         when(repo.findWithFilters(any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(q);
 
         when(q.count()).thenReturn(5L);
-        when(q.page(any(Page.class))).thenReturn(q);
+        when(q.project(PlannedTxRepository.PlannedTxView.class)).thenReturn(views);
+        when(views.page(any(Page.class))).thenReturn(views);
 
-        PlannedTx e = new PlannedTx();
-        when(q.list()).thenReturn(List.of(e));
+        var e = view(2L);
+        when(views.list()).thenReturn(List.of(e));
 
         PlannedTxResponseDTO dto = new PlannedTxResponseDTO();
         dto.id = 2L;
@@ -88,7 +96,7 @@ class PlannedTxServiceTest {
         dto.dueDate = LocalDate.now();
         dto.autoBook = false;
 
-        when(map.entityToResponse(e)).thenReturn(dto);
+        when(map.viewToResponse(e)).thenReturn(dto);
 
         ServiceResponseDTO<PagedResponseDTO<PlannedTxResponseDTO>> res =
                 svc.page("u", 0, 10, null, null, null, null, null, null, null);
@@ -101,9 +109,7 @@ class PlannedTxServiceTest {
 
     @Test
     void getById_NotExisting_ReturnsNotFound() {
-        PanacheQuery<PlannedTx> q = mockPlannedQuery();
-        when(repo.find(eq("userSub = ?1 and id = ?2"), any(Object[].class))).thenReturn(q);
-        when(q.firstResult()).thenReturn(null);
+        when(repo.findViewByUserAndId("u", 9L)).thenReturn(null);
 
         var res = svc.getById("u", 9L);
 
@@ -112,11 +118,8 @@ class PlannedTxServiceTest {
 
     @Test
     void getById_Existing_MapsToDTO() {
-        PlannedTx e = new PlannedTx();
-
-        PanacheQuery<PlannedTx> q = mockPlannedQuery();
-        when(repo.find(eq("userSub = ?1 and id = ?2"), any(Object[].class))).thenReturn(q);
-        when(q.firstResult()).thenReturn(e);
+        var e = view(1L);
+        when(repo.findViewByUserAndId("u", 1L)).thenReturn(e);
 
         PlannedTxResponseDTO dto = new PlannedTxResponseDTO();
         dto.id = 1L;
@@ -127,7 +130,7 @@ class PlannedTxServiceTest {
         dto.dueDate = LocalDate.now();
         dto.autoBook = true;
 
-        when(map.entityToResponse(e)).thenReturn(dto);
+        when(map.viewToResponse(e)).thenReturn(dto);
 
         var res = svc.getById("u", 1L);
 
@@ -246,4 +249,13 @@ class PlannedTxServiceTest {
     private PanacheQuery<PlannedTx> mockPlannedQuery() {
         return (PanacheQuery<PlannedTx>) mock(PanacheQuery.class);
     }
+
+    @SuppressWarnings("unchecked")
+    private PanacheQuery<PlannedTxRepository.PlannedTxView> mockViewQuery() {
+        return (PanacheQuery<PlannedTxRepository.PlannedTxView>) mock(PanacheQuery.class);
+    }
+
+    private static PlannedTxRepository.PlannedTxView view(Long id) {
+        return new PlannedTxRepository.PlannedTxView(id, "E", 1L, "T", BigDecimal.ONE, LocalDate.now());
+    }
 }
@@ -0,0 +1,157 @@
+package service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import com.github.tomakehurst.wiremock.verification.LoggedRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import model.notification.PushMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import utils.NoDbProfile;
+import utils.OneSignalWireMockResource;
+
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matchingJsonPath;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@QuarkusTest
+@TestProfile(NoDbProfile.class)
+@QuarkusTestResource(value = OneSignalWireMockResource.class, restrictToAnnotatedClass = true)
+class PushDispatcherTest {
+
+    WireMockServer wireMock;
+
+    @Inject
+    PushDispatcher dispatcher;
+
+    @Inject
+    Event<PushMessage> pushes;
+
+    @Inject
+    MeterRegistry registry;
+
+    @BeforeEach
+    void reset() {
+        wireMock.resetAll();
+        wireMock.stubFor(post(urlEqualTo("/notifications"))
+                .willReturn(aResponse().withStatus(200).withBody("{\"id\":\"n1\"}")));
+    }
+
+    @Test
+    void enqueue_SameTitleAndBody_CoalescedIntoOneRequest() throws InterruptedException {
+        dispatcher.enqueue(external("u1", "Goal", "Behind"));
+        dispatcher.enqueue(external("u2", "Goal", "Behind"));
+        dispatcher.enqueue(external("u2", "Goal", "Behind"));
+        dispatcher.enqueue(external("u3", "Goal", "Behind"));
+        dispatcher.enqueue(external("u1", "Reminder", "Rent due"));
+
+        awaitRequests(2);
+
+        assertThat(wireMock.findAll(postRequestedFor(urlEqualTo("/notifications"))
+                .withRequestBody(matchingJsonPath("$.headings.en", equalTo("Goal")))
+                .withRequestBody(matchingJsonPath("$.include_aliases.external_id.length()",
+                        equalTo("3")))))
+                .hasSize(1);
+        assertThat(requestCount()).isEqualTo(2);
+        assertThat(registry.find("onesignal.batch.recipients").summary()).isNotNull();
+    }
+
+    @Test
+    void enqueue_ServerErrorThenOk_RetriesWithBackoff() throws InterruptedException {
+        wireMock.stubFor(post(urlEqualTo("/notifications")).inScenario("retry")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(503))
+                .willSetStateTo("recovered"));
+        wireMock.stubFor(post(urlEqualTo("/notifications")).inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse().withStatus(200)));
+
+        dispatcher.enqueue(new PushMessage(PushMessage.Target.SUBSCRIPTION, "sub-1", "T", "B"));
+
+        awaitRequests(2);
+        assertThat(wireMock.findAll(postRequestedFor(urlEqualTo("/notifications"))
+                .withRequestBody(matchingJsonPath("$.include_subscription_ids[0]",
+                        equalTo("sub-1")))))
+                .hasSize(2);
+    }
+
+    @Test
+    void enqueue_RateLimitedWithRetryAfter_WaitsAsToldBeforeRetrying() throws InterruptedException {
+        wireMock.stubFor(post(urlEqualTo("/notifications")).inScenario("limited")
+                .whenScenarioStateIs(Scenario.STARTED)
+                .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+                .willSetStateTo("open"));
+        wireMock.stubFor(post(urlEqualTo("/notifications")).inScenario("limited")
+                .whenScenarioStateIs("open")
+                .willReturn(aResponse().withStatus(200)));
+
+        dispatcher.enqueue(external("u1", "Limited", "Later"));
+
+        awaitRequests(2);
+        List<LoggedRequest> requests = wireMock.findAll(postRequestedFor(urlEqualTo("/notifications")));
+        assertThat(requests).hasSize(2);
+        assertThat(requests.get(1).getLoggedDate().getTime() - requests.get(0).getLoggedDate().getTime())
+                .isGreaterThanOrEqualTo(900);
+    }
+
+    @Test
+    void fire_InsideTransaction_SentOnlyAfterCommit() throws InterruptedException {
+        QuarkusTransaction.requiringNew().run(() -> {
+            pushes.fire(external("u1", "Large", "Spent"));
+            sleep(600);
+            assertThat(requestCount()).isZero();
+        });
+
+        awaitRequests(1);
+        assertThat(requestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fire_RolledBackTransaction_NeverSent() throws InterruptedException {
+        assertThatThrownBy(() -> QuarkusTransaction.requiringNew().run(() -> {
+            pushes.fire(external("u1", "Large", "Spent"));
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Thread.sleep(800);
+        assertThat(requestCount()).isZero();
+    }
+
+    private static PushMessage external(String user, String title, String body) {
+        return new PushMessage(PushMessage.Target.EXTERNAL_ID, user, title, body);
+    }
+
+    private int requestCount() {
+        return wireMock.findAll(postRequestedFor(urlEqualTo("/notifications"))).size();
+    }
+
+    private void awaitRequests(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (requestCount() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        // leave room for an unexpected extra request to show up
+        Thread.sleep(300);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -4,21 +4,38 @@ import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
 import jakarta.inject.Inject;
+import model.entity.Category;
+import model.external.RevolutImportSummaryDTO;
+import model.external.RevolutTransactionDTO;
 import model.response.ServiceResponseDTO;
 import org.junit.jupiter.api.Test;
 import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
+import repository.UserDataVersionRepository;
 import utils.NoDbProfile;
 
 import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
 @TestProfile(NoDbProfile.class)
 class RevolutImportServiceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @Inject
     RevolutImportService svc;
     @InjectMock
@@ -27,12 +44,95 @@ class RevolutImportServiceTest {
     CategoryService categoryService;
     @InjectMock
     TransactionRepository txRepo;
+    @InjectMock
+    TxMonthlyRollupRepository rollups;
 
     @Test
     void importMonthlyPdf_returnsBadRequest_onParseFailure() throws Exception {
-        when(parser.parseMonthlyStatement(any())).thenThrow(new RuntimeException("bad pdf"));
+        when(categoryService.getOrCreateRevolutCategory()).thenReturn(category());
+        when(parser.streamMonthlyStatement(any(), any())).thenThrow(new RuntimeException("bad pdf"));
 
         ServiceResponseDTO<?> res = svc.importMonthlyPdf("u", new ByteArrayInputStream(new byte[0]));
         assertThat(res.isSuccess()).isFalse();
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importMonthlyPdf_ManyRows_WritesInBatchesAndReturnsSummary() throws Exception {
+        int rows = RevolutImportService.BATCH_SIZE * 2 + 7;
+        when(categoryService.getOrCreateRevolutCategory()).thenReturn(category());
+        doAnswer(inv -> {
+            Consumer<RevolutTransactionDTO> sink = inv.getArgument(1);
+            for (int i = 0; i < rows; i++) {
+                sink.accept(new RevolutTransactionDTO(
+                        LocalDate.of(2024, 1, 1).plusDays(i % 300), "Shop " + i,
+                        new BigDecimal("1.50"), BigDecimal.ZERO));
+            }
+            return 42;
+        }).when(parser).streamMonthlyStatement(any(), any());
+
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(inv -> {
+            batchSizes.add(((List<TransactionRepository.ImportRow>) inv.getArgument(0)).size());
+            return null;
+        }).when(txRepo).stageImport(any());
+        var january = new TransactionRepository.ImportMonthTotal(
+                LocalDate.of(2024, 1, 1), "E", new BigDecimal("46.50"), 31);
+        when(txRepo.mergeImportStage("u", 9L)).thenReturn(
+                new TransactionRepository.ImportMerge(rows - 5, 5, List.of(january)));
+
+        ServiceResponseDTO<RevolutImportSummaryDTO> res =
+                svc.importMonthlyPdf("u", new ByteArrayInputStream(new byte[0]));
+
+        assertThat(res.isSuccess()).isTrue();
+        assertThat(res.getData().imported()).isEqualTo(rows - 5);
+        assertThat(res.getData().skipped()).isEqualTo(5);
+        assertThat(res.getData().pages()).isEqualTo(42);
+        assertThat(res.getData().from()).isEqualTo(LocalDate.of(2024, 1, 1));
+        assertThat(res.getData().to()).isEqualTo(LocalDate.of(2024, 1, 1).plusDays(299));
+        assertThat(batchSizes).containsExactly(
+                RevolutImportService.BATCH_SIZE, RevolutImportService.BATCH_SIZE, 7);
+
+        verify(txRepo).openImportStage();
+        verify(rollups).applyDelta("u", LocalDate.of(2024, 1, 1), 9L, "E", new BigDecimal("46.50"), 31);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importMonthlyPdf_IdenticalLines_GetDistinctStableFingerprints() throws Exception {
+        when(categoryService.getOrCreateRevolutCategory()).thenReturn(category());
+        doAnswer(inv -> {
+            Consumer<RevolutTransactionDTO> sink = inv.getArgument(1);
+            sink.accept(new RevolutTransactionDTO(LocalDate.of(2024, 3, 4), "Coffee", new BigDecimal("2.40"), BigDecimal.ZERO));
+            sink.accept(new RevolutTransactionDTO(LocalDate.of(2024, 3, 4), "Coffee ", new BigDecimal("2.4"), BigDecimal.ZERO));
+            sink.accept(new RevolutTransactionDTO(LocalDate.of(2024, 3, 5), "Coffee", new BigDecimal("2.40"), BigDecimal.ZERO));
+            return 1;
+        }).when(parser).streamMonthlyStatement(any(), any());
+        when(txRepo.mergeImportStage("u", 9L)).thenReturn(new TransactionRepository.ImportMerge(0, 3, List.of()));
+
+        List<String> fingerprints = new ArrayList<>();
+        doAnswer(inv -> {
+            ((List<TransactionRepository.ImportRow>) inv.getArgument(0))
+                    .forEach(r -> fingerprints.add(r.fingerprint()));
+            return null;
+        }).when(txRepo).stageImport(any());
+
+        ServiceResponseDTO<RevolutImportSummaryDTO> res =
+                svc.importMonthlyPdf("u", new ByteArrayInputStream(new byte[0]));
+
+        assertThat(res.getData().skipped()).isEqualTo(3);
+        assertThat(fingerprints).hasSize(3).doesNotHaveDuplicates();
+        String key = RevolutImportService.contentKey(new RevolutTransactionDTO(
+                LocalDate.of(2024, 3, 4), "Coffee", new BigDecimal("2.40"), BigDecimal.ZERO));
+        assertThat(fingerprints.get(0)).isEqualTo(RevolutImportService.fingerprint(key, 0));
+        assertThat(fingerprints.get(1)).isEqualTo(RevolutImportService.fingerprint(key, 1));
+        verify(rollups, never()).applyDelta(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    private static Category category() {
+        Category c = new Category();
+        c.setId(9L);
+        c.setName("Revolut");
+        return c;
+    }
 }
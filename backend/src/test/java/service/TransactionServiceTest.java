@@ -1,7 +1,6 @@
 package service;
 
 import io.quarkus.hibernate.orm.panache.PanacheQuery;
-import io.quarkus.panache.common.Page;
 import io.quarkus.test.InjectMock;
 import io.quarkus.test.junit.QuarkusTest;
 import io.quarkus.test.junit.TestProfile;
@@ -10,37 +9,53 @@ import jakarta.persistence.Tuple;
 import mapper.TransactionMapper;
 import model.entity.Transaction;
 import model.helper.PagedResponseDTO;
+import model.helper.TxCursor;
 import model.home.FullTxRequestDTO;
 import model.home.TxResponseDTO;
 import model.response.ServiceResponseDTO;
 import model.tracking.CategoryBreakdownDTO;
 import model.tracking.LocationDTO;
 import model.tracking.SpendingVsIncomeDTO;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import repository.BudgetRepository;
 import repository.CategoryRepository;
 import repository.TransactionRepository;
+import repository.TxMonthlyRollupRepository;
+import repository.UserDataVersionRepository;
 import utils.NoDbProfile;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @QuarkusTest
 @TestProfile(NoDbProfile.class)
 class TransactionServiceTest {
 
+    @InjectMock
+    UserDataVersionRepository dataVersions;
+
     @InjectMock
     NotificationService notifier;
 
@@ -53,22 +68,28 @@ class TransactionServiceTest {
     @InjectMock
     TransactionMapper mapper;
     @InjectMock
-    LocationService locationService;
+    TxMonthlyRollupRepository rollups;
 
     @Inject
     TransactionService svc;
+    @Inject
+    AnalyticsCache analytics;
+
+    @BeforeEach
+    void clearCache() {
+        analytics.invalidateAll();
+    }
 
     @Test
     void findById_FoundAndMissing_ReturnsSuccessAndNotFound() {
-        var t = new Transaction();
-        t.setId(5L);
-        when(txRepo.findByIdAndUser("u", 5L)).thenReturn(t);
-        when(mapper.entityToResponse(t))
+        var t = view(5L, "2025-03-01T10:00:00Z");
+        when(txRepo.findViewByIdAndUser("u", 5L)).thenReturn(t);
+        when(mapper.viewToResponse(t))
                 .thenReturn(new TxResponseDTO(5L, "E", new BigDecimal("1"), null, null, null, null));
 
         assertThat(svc.findById("u", 5L).isSuccess()).isTrue();
 
-        when(txRepo.findByIdAndUser("u", 6L)).thenReturn(null);
+        when(txRepo.findViewByIdAndUser("u", 6L)).thenReturn(null);
         assertThat(svc.findById("u", 6L).isSuccess()).isFalse();
     }
 
@@ -98,6 +119,34 @@ class TransactionServiceTest {
         assertThat(res.getData()).extracting(CategoryBreakdownDTO::category).containsExactly("Food");
     }
 
+    @Test
+    void spendingVsIncome_RepeatedUntilDataVersionMoves_QueriesOncePerVersion() {
+        when(txRepo.findSpendingVsIncomeByYear("u", 2024)).thenReturn(List.of());
+        when(dataVersions.current("u")).thenReturn(3L);
+
+        svc.spendingVsIncome("u", 2024);
+        svc.spendingVsIncome("u", 2024);
+        verify(txRepo, times(1)).findSpendingVsIncomeByYear("u", 2024);
+
+        when(dataVersions.current("other")).thenReturn(8L);
+        svc.spendingVsIncome("u", 2024);
+        verify(txRepo, times(1)).findSpendingVsIncomeByYear("u", 2024);
+
+        // a write committed on another replica only shows up as the stored version
+        when(dataVersions.current("u")).thenReturn(4L);
+        svc.spendingVsIncome("u", 2024);
+        verify(txRepo, times(2)).findSpendingVsIncomeByYear("u", 2024);
+    }
+
+    @Test
+    void categoryBreakdown_InvalidMonth_ReturnsBadRequestWithoutQuery() {
+        var res = svc.categoryBreakdown("u", "2025-13");
+
+        assertThat(res.isSuccess()).isFalse();
+        assertThat(res.getStatusCode()).isEqualTo(400);
+        verify(txRepo, never()).findCategoryBreakdown(anyString(), anyString());
+    }
+
     @Test
     void topLocations_Maps_ReturnsList() {
         Tuple a = mock(Tuple.class);
@@ -114,9 +163,9 @@ class TransactionServiceTest {
 
     @Test
     void recent_Maps_ReturnsDTOs() {
-        var t = new Transaction();
-        when(txRepo.findRecent("u", 3)).thenReturn(List.of(t));
-        when(mapper.entityToResponse(t))
+        var t = view(1L, "2025-03-01T10:00:00Z");
+        when(txRepo.findRecentViews("u", 3)).thenReturn(List.of(t));
+        when(mapper.viewToResponse(t))
                 .thenReturn(new TxResponseDTO(1L, "E", BigDecimal.ONE, null, null, null, null));
 
         assertThat(svc.recent("u", 3).getData()).hasSize(1);
@@ -129,17 +178,27 @@ class TransactionServiceTest {
         assertThat(bad.getMessage()).contains("Invalid date");
     }
 
+    @Test
+    void recentAndTopLocations_NonPositiveLimit_ReturnBadRequest() {
+        assertThat(svc.recent("u", 0).getStatusCode()).isEqualTo(400);
+        assertThat(svc.topLocations("u", -3).getStatusCode()).isEqualTo(400);
+        verify(txRepo, never()).findRecentViews(anyString(), anyInt());
+        verify(txRepo, never()).findTopLocations(anyString(), anyInt());
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     void page_CountsPagesAndMaps_ReturnsPaged() {
         PanacheQuery<Transaction> q = mock(PanacheQuery.class);
-        when(txRepo.findByUserWithFilters(any(), any(), any(), any(), any(), any(), any(), any()))
+        PanacheQuery<TransactionRepository.TxView> views = mock(PanacheQuery.class);
+        when(txRepo.findByUserWithFilters(any(), any(), any(), any(), any(), any(), any(), any(), any()))
                 .thenReturn(q);
         when(q.count()).thenReturn(2L);
-        when(q.page(any(Page.class))).thenReturn(q);
-        var t = new Transaction();
-        when(q.list()).thenReturn(List.of(t));
-        when(mapper.entityToResponse(t))
+        when(q.project(TransactionRepository.TxView.class)).thenReturn(views);
+        when(views.range(5, 10)).thenReturn(views);
+        var t = view(7L, "2025-03-01T10:00:00Z");
+        when(views.list()).thenReturn(List.of(t));
+        when(mapper.viewToResponse(t))
                 .thenReturn(new TxResponseDTO(7L, "I", BigDecimal.TEN, null, null, null, null));
 
         ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>> res =
@@ -148,20 +207,77 @@ class TransactionServiceTest {
         assertThat(res.isSuccess()).isTrue();
         assertThat(res.getData().total()).isEqualTo(2);
         assertThat(res.getData().items()).hasSize(1);
+        assertThat(res.getData().nextCursor()).isNull();
+    }
+
+    @Test
+    void page_InvalidCursor_ReturnsBadRequest() {
+        var bad = svc.page("u", 0, 10, null, null, null, null, null, null, null, "%%%", true);
+        assertThat(bad.isSuccess()).isFalse();
+        assertThat(bad.getMessage()).contains("Invalid cursor");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void page_CursorWithoutTotal_SeeksAndReturnsNextCursor() {
+        var after = new TxCursor(OffsetDateTime.parse("2025-03-01T10:00:00Z"), 40L);
+        PanacheQuery<Transaction> q = mock(PanacheQuery.class);
+        PanacheQuery<TransactionRepository.TxView> views = mock(PanacheQuery.class);
+        when(txRepo.findByUserWithFilters(eq("u"), any(), any(), any(), any(), any(), any(), any(), eq(after)))
+                .thenReturn(q);
+        when(q.project(TransactionRepository.TxView.class)).thenReturn(views);
+        when(views.range(0, 2)).thenReturn(views);
+        var t1 = view(39L, "2025-03-01T10:00:00Z");
+        var t2 = view(12L, "2025-02-27T08:30:00Z");
+        var t3 = view(11L, "2025-02-20T08:30:00Z");
+        when(views.list()).thenReturn(List.of(t1, t2, t3));
+        when(mapper.viewToResponse(any()))
+                .thenReturn(new TxResponseDTO(1L, "E", BigDecimal.ONE, null, null, null, null));
+
+        var res = svc.page("u", 3, 2, null, null, null, null, null, null, null, after.encode(), false);
+
+        assertThat(res.isSuccess()).isTrue();
+        assertThat(res.getData().items()).hasSize(2);
+        assertThat(res.getData().total()).isEqualTo(PagedResponseDTO.UNKNOWN_TOTAL);
+        assertThat(TxCursor.decode(res.getData().nextCursor()))
+                .isEqualTo(new TxCursor(t2.txTime(), 12L));
+        verify(q, never()).count();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void page_CursorWithTotal_CountsWholeFilteredList() {
+        var after = new TxCursor(OffsetDateTime.parse("2025-03-01T10:00:00Z"), 40L);
+        PanacheQuery<Transaction> seek = mock(PanacheQuery.class);
+        PanacheQuery<Transaction> all = mock(PanacheQuery.class);
+        PanacheQuery<TransactionRepository.TxView> views = mock(PanacheQuery.class);
+        when(txRepo.findByUserWithFilters(eq("u"), any(), any(), any(), any(), any(), any(), any(), eq(after)))
+                .thenReturn(seek);
+        when(txRepo.findByUserWithFilters(eq("u"), any(), any(), any(), any(), any(), any(), any(), isNull()))
+                .thenReturn(all);
+        when(all.count()).thenReturn(42L);
+        when(seek.project(TransactionRepository.TxView.class)).thenReturn(views);
+        when(views.range(0, 2)).thenReturn(views);
+        when(views.list()).thenReturn(List.of());
+
+        var res = svc.page("u", 3, 2, null, null, null, null, null, null, null, after.encode(), true);
+
+        assertThat(res.getData().total()).isEqualTo(42);
+        verify(seek, never()).count();
     }
 
     @Test
     void getBalance_SumsIncomeMinusExpense_ReturnsBalance() {
-        when(txRepo.sumByType("u", "I")).thenReturn(new BigDecimal("100"));
-        when(txRepo.sumByType("u", "E")).thenReturn(new BigDecimal("30"));
+        when(txRepo.findTotals("u"))
+                .thenReturn(new TransactionRepository.Totals(new BigDecimal("100"), new BigDecimal("30")));
         assertThat(svc.getBalance("u").getData()).isEqualByComparingTo("70");
     }
 
     @Test
     void findByDateRange_Maps_ReturnsList() {
-        var t = new Transaction();
-        when(txRepo.findByUserAndDateRange(eq("u"), any(), any())).thenReturn(List.of(t));
-        when(mapper.entityToResponse(t))
+        var t = view(1L, "2025-03-01T10:00:00Z");
+        when(txRepo.findViewsByDateRange(eq("u"), any(), any())).thenReturn(List.of(t));
+        when(mapper.viewToResponse(t))
                 .thenReturn(new TxResponseDTO(1L, "E", BigDecimal.ONE, null, null, null, null));
 
         var res = svc.findByDateRange("u", OffsetDateTime.now().minusDays(1), OffsetDateTime.now());
@@ -169,7 +285,18 @@ class TransactionServiceTest {
     }
 
     @Test
-    void create_WithLatLon_SetsLocationNameAndChecksNotifications() {
+    void findByDateRange_ToInstant_IsPassedAsExclusiveBound() {
+        var from = OffsetDateTime.parse("2025-03-01T00:00:00Z");
+        var to = OffsetDateTime.parse("2025-03-15T10:00:00+02:00");
+        when(txRepo.findViewsByDateRange(any(), any(), any())).thenReturn(List.of());
+
+        svc.findByDateRange("u", from, to);
+
+        verify(txRepo).findViewsByDateRange("u", from, to);
+    }
+
+    @Test
+    void create_WithLatLon_SavesCoordinatesWithoutGeocoding() {
         var tx = spy(new Transaction());
         tx.setType("E");
         tx.setAmount(new BigDecimal("10"));
@@ -178,7 +305,6 @@ class TransactionServiceTest {
         doNothing().when(tx).persist();
 
         when(mapper.fullRequestToEntity(any())).thenReturn(tx);
-        when(locationService.getLocationName(45.0, 16.0)).thenReturn("Home");
         doNothing().when(notifier).sendToUser(anyString(), anyString(), anyString());
 
         var req = new FullTxRequestDTO(
@@ -188,7 +314,95 @@ class TransactionServiceTest {
         var res = svc.create("u", req);
 
         assertThat(res.isSuccess()).isTrue();
-        assertThat(tx.getLocationName()).isEqualTo("Home");
+        assertThat(tx.getLatitude()).isEqualByComparingTo("45.0");
+        assertThat(tx.getLocationName()).isNull();
+        verify(txRepo, never()).requeueGeocode(any());
+        verify(dataVersions).bump("u");
+    }
+
+    @Test
+    void create_ExpenseTakesSpendingOverBudget_NotifiesOnCrossingOnly() {
+        LocalDate month = TxMonthlyRollupRepository.monthOf(OffsetDateTime.now(ZoneOffset.UTC));
+        Transaction tx = expense(new BigDecimal("10"));
+        when(mapper.fullRequestToEntity(any())).thenReturn(tx);
+        var req = new FullTxRequestDTO("E", new BigDecimal("10"), 3L, LocalDateTime.now(), null, null, null);
+
+        when(budgetRepo.findStatus("u", 3L, month)).thenReturn(Optional.of(
+                new BudgetRepository.BudgetStatus(new BigDecimal("100"), new BigDecimal("105"), "Food")));
+        svc.create("u", req);
+
+        when(budgetRepo.findStatus("u", 3L, month)).thenReturn(Optional.of(
+                new BudgetRepository.BudgetStatus(new BigDecimal("100"), new BigDecimal("115"), "Food")));
+        svc.create("u", req);
+
+        verify(notifier, times(1)).sendToUser(eq("u"), eq("🚨 Budget Exceeded"), anyString());
+    }
+
+    @Test
+    void update_AmountRaisedWithinSameCell_ComparesAgainstPreviousSpend() {
+        LocalDate month = TxMonthlyRollupRepository.monthOf(OffsetDateTime.now(ZoneOffset.UTC));
+        Transaction tx = expense(new BigDecimal("40"));
+        tx.setId(9L);
+        when(txRepo.findByIdAndUser("u", 9L)).thenReturn(tx);
+        doAnswer(inv -> {
+            tx.setAmount(new BigDecimal("60"));
+            return null;
+        }).when(mapper).updateFromFullDto(any(), eq(tx));
+        // 80 spent before the edit, 100 after: the edit adds 20 and lands exactly on the limit
+        when(budgetRepo.findStatus("u", 3L, month)).thenReturn(Optional.of(
+                new BudgetRepository.BudgetStatus(new BigDecimal("100"), new BigDecimal("100"), "Food")));
+
+        svc.update("u", 9L, new FullTxRequestDTO(
+                "E", new BigDecimal("60"), 3L, LocalDateTime.now(), null, null, null));
+        verify(notifier, never()).sendToUser(eq("u"), eq("🚨 Budget Exceeded"), anyString());
+
+        when(budgetRepo.findStatus("u", 3L, month)).thenReturn(Optional.of(
+                new BudgetRepository.BudgetStatus(new BigDecimal("100"), new BigDecimal("101"), "Food")));
+        tx.setAmount(new BigDecimal("40"));
+        svc.update("u", 9L, new FullTxRequestDTO(
+                "E", new BigDecimal("60"), 3L, LocalDateTime.now(), null, null, null));
+        verify(notifier).sendToUser(eq("u"), eq("🚨 Budget Exceeded"), anyString());
+    }
+
+    private static Transaction expense(BigDecimal amount) {
+        Transaction t = spy(new Transaction());
+        t.setUserSub("u");
+        t.setType("E");
+        t.setAmount(amount);
+        t.setCategoryId(3L);
+        t.setTxTime(OffsetDateTime.now(ZoneOffset.UTC));
+        doNothing().when(t).persist();
+        doNothing().when(t).persistAndFlush();
+        return t;
+    }
+
+    @Test
+    void update_CoordinatesMoved_ClearsNameAndRequeuesGeocode() {
+        var tx = spy(new Transaction());
+        tx.setId(4L);
+        tx.setUserSub("u");
+        tx.setType("E");
+        tx.setAmount(BigDecimal.ONE);
+        tx.setCategoryId(1L);
+        tx.setTxTime(OffsetDateTime.parse("2025-01-31T10:00Z"));
+        tx.setLatitude(new BigDecimal("45.000000"));
+        tx.setLongitude(new BigDecimal("16.000000"));
+        tx.setLocationName("Old place");
+        doNothing().when(tx).persistAndFlush();
+        when(txRepo.findByIdAndUser("u", 4L)).thenReturn(tx);
+
+        var same = new FullTxRequestDTO("E", BigDecimal.ONE, 1L, LocalDateTime.parse("2025-01-31T10:00"), null,
+                new BigDecimal("45.0"), new BigDecimal("16.0"));
+        svc.update("u", 4L, same);
+        assertThat(tx.getLocationName()).isEqualTo("Old place");
+        verify(txRepo, never()).requeueGeocode(4L);
+
+        var moved = new FullTxRequestDTO("E", BigDecimal.ONE, 1L, LocalDateTime.parse("2025-01-31T10:00"), null,
+                new BigDecimal("45.1"), new BigDecimal("16.0"));
+        svc.update("u", 4L, moved);
+        assertThat(tx.getLocationName()).isNull();
+        assertThat(tx.getLatitude()).isEqualByComparingTo("45.1");
+        verify(txRepo).requeueGeocode(4L);
     }
 
     @Test
@@ -200,39 +414,95 @@ class TransactionServiceTest {
     }
 
     @Test
-    void findDailyExpenses_GroupsIncomePositiveExpenseNegative_ReturnsTotals() {
-        var t1 = new Transaction();
-        t1.setType("I");
-        t1.setAmount(new BigDecimal("10"));
-        t1.setTxTime(OffsetDateTime.now().minusHours(2));
-        var t2 = new Transaction();
-        t2.setType("E");
-        t2.setAmount(new BigDecimal("5"));
-        t2.setTxTime(OffsetDateTime.now().minusHours(1));
+    void update_Existing_MovesRollupContributionFromOldToNewValues() {
+        var tx = spy(new Transaction());
+        tx.setUserSub("u");
+        tx.setType("E");
+        tx.setAmount(new BigDecimal("10"));
+        tx.setCategoryId(3L);
+        tx.setTxTime(OffsetDateTime.parse("2025-01-31T10:00Z"));
+        doNothing().when(tx).persistAndFlush();
+        when(txRepo.findByIdAndUser("u", 1L)).thenReturn(tx);
+
+        var req = new FullTxRequestDTO("E", new BigDecimal("25"), 4L, LocalDateTime.parse("2025-02-01T09:00"), null, null, null);
+        doAnswer(inv -> {
+            tx.setAmount(req.amount());
+            tx.setCategoryId(req.categoryId());
+            tx.setTxTime(req.txTime().atOffset(ZoneOffset.UTC));
+            return null;
+        }).when(mapper).updateFromFullDto(any(), any());
+
+        var res = svc.update("u", 1L, req);
+
+        assertThat(res.isSuccess()).isTrue();
+        verify(rollups).remove(new TxMonthlyRollupRepository.Contribution(
+                "u", LocalDate.of(2025, 1, 1), 3L, "E", new BigDecimal("10")));
+        verify(rollups).add(tx);
+    }
+
+    @Test
+    void delete_Existing_RemovesRollupContribution() {
+        var tx = new Transaction();
+        tx.setUserSub("u");
+        tx.setType("I");
+        tx.setAmount(new BigDecimal("40"));
+        tx.setCategoryId(2L);
+        tx.setTxTime(OffsetDateTime.parse("2025-03-15T00:00Z"));
+        when(txRepo.findByIdAndUser("u", 9L)).thenReturn(tx);
 
-        when(txRepo.findByUserAndDateRange(anyString(), any(), any())).thenReturn(List.of(t1, t2));
+        var res = svc.delete("u", 9L);
 
-        ServiceResponseDTO<Map<String, BigDecimal>> res = svc.findDailyExpenses("u", 1);
-        var totals = res.getData().values();
-        assertThat(totals).containsExactly(new BigDecimal("10").add(new BigDecimal("5").negate()));
+        assertThat(res.isSuccess()).isTrue();
+        verify(txRepo).delete(tx);
+        verify(rollups).remove(new TxMonthlyRollupRepository.Contribution(
+                "u", LocalDate.of(2025, 3, 1), 2L, "I", new BigDecimal("40")));
     }
 
     @Test
-    void findMonthlyExpenses_GroupsByYearMonth_ReturnsMap() {
-        var jan = new Transaction();
-        jan.setType("E");
-        jan.setAmount(new BigDecimal("3"));
-        jan.setTxTime(OffsetDateTime.parse("2025-01-10T00:00Z"));
-        var feb = new Transaction();
-        feb.setType("I");
-        feb.setAmount(new BigDecimal("7"));
-        feb.setTxTime(OffsetDateTime.parse("2025-02-10T00:00Z"));
+    void findDailyExpenses_DaysWithoutActivity_FilledWithZero() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        when(txRepo.findDailyExpenses("u", today.minusDays(2), today)).thenReturn(List.of(
+                new TransactionRepository.DailySum(today.minusDays(2), new BigDecimal("5")),
+                new TransactionRepository.DailySum(today, new BigDecimal("-3"))));
+
+        ServiceResponseDTO<Map<String, BigDecimal>> res = svc.findDailyExpenses("u", 3);
+
+        assertThat(res.getData()).containsExactly(
+                Map.entry(today.minusDays(2).toString(), new BigDecimal("5")),
+                Map.entry(today.minusDays(1).toString(), BigDecimal.ZERO),
+                Map.entry(today.toString(), new BigDecimal("-3")));
+        verify(txRepo, never()).findByUserAndDateRange(anyString(), any(), any());
+    }
 
-        when(txRepo.findByUserAndDateRange(anyString(), any(), any())).thenReturn(List.of(jan, feb));
+    @Test
+    void findMonthlyExpenses_SparseMonths_ReturnsTwelveEntries() {
+        when(txRepo.findMonthlyExpenses("u", 2025)).thenReturn(List.of(
+                new TransactionRepository.MonthlySum(1, new BigDecimal("-3")),
+                new TransactionRepository.MonthlySum(2, new BigDecimal("7"))));
 
         var res = svc.findMonthlyExpenses("u", 2025);
-        assertThat(res.getData())
+
+        assertThat(res.getData()).hasSize(12)
                 .containsEntry("2025-01", new BigDecimal("-3"))
-                .containsEntry("2025-02", new BigDecimal("7"));
+                .containsEntry("2025-02", new BigDecimal("7"))
+                .containsEntry("2025-12", BigDecimal.ZERO);
+        assertThat(res.getData().keySet()).startsWith("2025-01", "2025-02", "2025-03");
+    }
+
+    @Test
+    void fillDays_IgnoresRowsOutsideWindow() {
+        LocalDate d = LocalDate.of(2025, 3, 1);
+        var filled = TransactionService.fillDays(d, d.plusDays(1), List.of(
+                new TransactionRepository.DailySum(d.minusDays(1), BigDecimal.ONE),
+                new TransactionRepository.DailySum(d.plusDays(1), BigDecimal.TEN)));
+
+        assertThat(filled).containsExactly(
+                Map.entry("2025-03-01", BigDecimal.ZERO),
+                Map.entry("2025-03-02", BigDecimal.TEN));
+    }
+
+    private static TransactionRepository.TxView view(Long id, String txTime) {
+        return new TransactionRepository.TxView(id, "E", BigDecimal.ONE, 1L, OffsetDateTime.parse(txTime),
+                null, null);
     }
 }
@@ -17,7 +17,8 @@ public class NoDbProfile implements QuarkusTestProfile {
                 "quarkus.datasource.devservices.enabled", "false",
                 "quarkus.hibernate-orm.enabled", "false",
                 "quarkus.flyway.migrate-at-start", "false",
-                "quarkus.scheduler.enabled", "false"
+                "quarkus.scheduler.enabled", "false",
+                "geocode.cache.warmup-size", "0"
         );
     }
 }
@@ -17,7 +17,8 @@ public class NoDbProfileWithPermitOidc implements QuarkusTestProfile {
                 "quarkus.flyway.migrate-at-start", "false",
                 "quarkus.scheduler.enabled", "false",
                 "quarkus.oidc.enabled", "false",
-                "quarkus.http.auth.permission.secured.policy", "permit"
+                "quarkus.http.auth.permission.secured.policy", "permit",
+                "geocode.cache.warmup-size", "0"
         );
     }
 }
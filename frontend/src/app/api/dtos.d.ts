@@ -1,6 +1,6 @@
 /* tslint:disable */
 /* eslint-disable */
-// Generated using typescript-generator version 3.2.1263 on 2025-08-10 20:13:29.
+// Generated using typescript-generator version 3.2.1263 on 2026-10-18 03:57:50.
 
 export interface AccountSummaryDTO {
     topHoldings: HoldingDTO[];
@@ -43,6 +43,8 @@ export interface FullPortfolioDTO {
     topMarketCoins: TopCoinDTO[];
     myCoins: CoinPortfolioEntryDTO[];
     totalEurValue: number;
+    marketDataAsOf: Date;
+    marketDataStale: boolean;
 }
 
 export interface HoldingDTO {
@@ -52,12 +54,33 @@ export interface HoldingDTO {
     totalValue: number;
 }
 
+export interface PortfolioHistoryDTO {
+    from: Date;
+    to: Date;
+    stepDays: number;
+    points: PortfolioPointDTO[];
+}
+
+export interface PortfolioPointDTO {
+    date: Date;
+    totalEurValue: number;
+    assetEurValues: { [index: string]: number };
+}
+
 export interface PortfolioSummaryDTO {
     topCoins: TopCoinDTO[];
     holdings: CoinInfoDTO[];
     totalEurValue: number;
 }
 
+export interface RevolutImportSummaryDTO {
+    imported: number;
+    skipped: number;
+    pages: number;
+    from?: Date;
+    to?: Date;
+}
+
 export interface RevolutTransactionDTO {
     date: Date;
     description: string;
@@ -101,6 +124,7 @@ export interface PagedResponseDTO<T> {
     page: number;
     size: number;
     total: number;
+    nextCursor?: string;
 }
 
 export interface BudgetRequestDTO {
@@ -201,12 +225,26 @@ export interface CategoryBreakdownDTO {
     amount: number;
 }
 
+export interface DashboardBundleDTO {
+    summary: DashboardSummaryDTO;
+    recent: TxResponseDTO[];
+    daily: { [index: string]: number };
+    month: string;
+    categoryBreakdown: CategoryBreakdownDTO[];
+    topLocations: LocationDTO[];
+}
+
 export interface DashboardSummaryDTO {
     totalExpenses: number;
     totalIncome: number;
     budgetRemaining: number;
 }
 
+export interface GeocodeBacklogDTO {
+    pending: number;
+    exhausted: number;
+}
+
 export interface LocationDTO {
     latitude: number;
     longitude: number;
@@ -111,8 +111,7 @@ export class HomeComponent implements OnInit {
       if (r.success) this.categories = r.data;
     });
 
-    this.loadBalance();
-    this.loadRecent();
+    this.loadDashboard();
     this.updateChart();
     this.loadBudgetSummary();
     this.loadUpcomingCount();
@@ -120,16 +119,14 @@ export class HomeComponent implements OnInit {
     this.theme = this.themeService.initTheme();
   }
 
-  private loadBalance() {
-    this.homeApi.getBalance().subscribe(r => {
-      if (r.success) this.balance = r.data;
-      else this.notifications.notify(r.message, 'error');
-    });
-  }
-
-  private loadRecent() {
-    this.homeApi.getRecent(5).subscribe(r => {
-      if (r.success) this.recentTx = r.data;
+  private loadDashboard() {
+    this.homeApi.getDashboardBundle(5).subscribe(r => {
+      if (r.success) {
+        this.balance = r.data.summary.budgetRemaining;
+        this.recentTx = r.data.recent;
+      } else {
+        this.notifications.notify(r.message, 'error');
+      }
     });
   }
 
@@ -280,7 +277,7 @@ export class HomeComponent implements OnInit {
       this.notifications.notify(r.message, r.success ? 'success' : 'error');
       if (r.success) {
         this.showQuickModal = false;
-        this.loadBalance(); this.loadRecent(); this.updateChart();
+        this.loadDashboard(); this.updateChart();
       }
     });
   }
@@ -317,7 +314,7 @@ export class HomeComponent implements OnInit {
       this.notifications.notify(r.message, r.success ? 'success' : 'error');
       if (r.success) {
         this.showQrModal = false;
-        this.loadBalance(); this.loadRecent(); this.updateChart();
+        this.loadDashboard(); this.updateChart();
       }
     });
   }
@@ -363,7 +360,7 @@ export class HomeComponent implements OnInit {
     };
     this.homeApi.quickAdd(dto).subscribe(r => {
       this.notifications.notify(r.message, r.success ? 'success' : 'error');
-      if (r.success) { this.closeCash(); this.loadBalance(); this.loadRecent(); this.updateChart(); }
+      if (r.success) { this.closeCash(); this.loadDashboard(); this.updateChart(); }
     });
   }
 
@@ -2,6 +2,7 @@ import { Injectable } from '@angular/core';
 import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
 import {
+    DashboardBundleDTO,
     ServiceResponseDTO,
     TxResponseDTO,
     QuickTxRequestDTO,
@@ -16,6 +17,7 @@ export class HomeService {
     private readonly base = `${environment.apiUrl}/transactions`;
     private readonly budgetBase = `${environment.apiUrl}/budgets`;
     private readonly plannedBase = `${environment.apiUrl}/planned-transactions`;
+    private readonly dashboardBase = `${environment.apiUrl}/dashboard`;
 
     constructor(private http: HttpClient) { }
 
@@ -25,6 +27,13 @@ export class HomeService {
         );
     }
 
+    getDashboardBundle(recent: number = 5): Observable<ServiceResponseDTO<DashboardBundleDTO>> {
+        const params = new HttpParams().set('recent', recent.toString());
+        return this.http.get<ServiceResponseDTO<DashboardBundleDTO>>(
+            `${this.dashboardBase}/bundle`, { params }
+        );
+    }
+
     getRecent(limit: number = 5): Observable<ServiceResponseDTO<TxResponseDTO[]>> {
         const params = new HttpParams().set('limit', limit.toString());
         return this.http.get<ServiceResponseDTO<TxResponseDTO[]>>(
@@ -77,6 +77,8 @@ export class TransactionComponent implements OnInit {
   private lastFilterKey = '';
   private filteredPages = 1;
   private totalPages = 1;
+  // pageCursors[p] is the keyset cursor that opens page p; page 0 never needs one
+  private pageCursors: (string | undefined)[] = [];
 
   fabOpen = false;
   searchTxt = '';
@@ -215,14 +217,19 @@ export class TransactionComponent implements OnInit {
           this.recalcView();
         });
     } else {
-      const opts = this.buildTxQueryOpts();
+      if (page === 0) this.pageCursors = [];
+      const cursor = this.pageCursors[page];
+      const opts = { ...this.buildTxQueryOpts(), cursor, withTotal: !cursor };
       this.txApi.page(page, this.size, opts)
         .pipe(catchError(() => of({ data: { items: [], total: 0 } } as any)))
         .subscribe(resp => {
           if (qKey !== this.lastQueryKey) return;
           const list = (resp.data?.items ?? []).map(this.mapRegular).filter(Boolean);
           this.items = list;
-          this.totalPages = Math.max(1, Math.ceil((resp.data?.total ?? 0) / this.size));
+          this.pageCursors[page + 1] = resp.data?.nextCursor ?? undefined;
+          if (!cursor) {
+            this.totalPages = Math.max(1, Math.ceil((resp.data?.total ?? 0) / this.size));
+          }
           this.recalcView();
         });
     }
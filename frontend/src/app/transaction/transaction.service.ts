@@ -28,6 +28,8 @@ export class TransactionService {
             to?: string;
             note?: string;
             category?: string;
+            cursor?: string;
+            withTotal?: boolean;
         }
     ): Observable<ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>>> {
         let params = new HttpParams().set('page', page).set('size', size);
@@ -41,6 +43,8 @@ export class TransactionService {
             if (opts.to) params = params.set('dueTo', opts.to);
             if (opts.note) params = params.set('note', opts.note);
             if (opts.category) params = params.set('category', opts.category);
+            if (opts.cursor) params = params.set('cursor', opts.cursor);
+            if (opts.withTotal === false) params = params.set('withTotal', false);
         }
 
         return this.http.get<ServiceResponseDTO<PagedResponseDTO<TxResponseDTO>>>(this.base, { params });